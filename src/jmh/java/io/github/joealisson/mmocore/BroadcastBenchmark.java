@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.ReadPathBenchmark.BenchmarkClient;
+import io.github.joealisson.mmocore.internal.InternalWritableBuffer;
+import io.github.joealisson.mmocore.internal.NotWrittenBufferException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the serialization of a packet sent to many recipients.
+ *
+ * <ul>
+ *     <li>perClient: the packet is written for each client.</li>
+ *     <li>broadcastCache: the packet is marked with {@link WritablePacket#openBroadcast()}.</li>
+ *     <li>group: the packet is written once as done by {@link ClientGroup}.</li>
+ * </ul>
+ *
+ * The recipients share a single unconnected channel, only the serialization of the packet is measured.
+ *
+ * @author JoeAlisson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadcastBenchmark {
+
+    private static final int PAYLOAD_INTS = 64;
+
+    @Param({"perClient", "broadcastCache", "group"})
+    public String mode;
+
+    @Param({"1", "100", "5000"})
+    public int recipients;
+
+    private AsynchronousSocketChannel channel;
+    private final List<BenchmarkClient> clients = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException {
+        ConnectionConfig config = new ConnectionConfig(new InetSocketAddress(0));
+        config.complete();
+        channel = AsynchronousSocketChannel.open();
+        for (int i = 0; i < recipients; i++) {
+            clients.add(new BenchmarkClient(new Connection<>(channel, null, null, config)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        clients.clear();
+        channel.close();
+    }
+
+    @Benchmark
+    public long serialize() throws NotWrittenBufferException {
+        StatusPacket packet = new StatusPacket();
+        if("broadcastCache".equals(mode)) {
+            packet.openBroadcast();
+        } else if("group".equals(mode)) {
+            packet.writeSharedData(clients.get(0));
+        }
+
+        long size = 0;
+        for (BenchmarkClient client : clients) {
+            InternalWritableBuffer buffer = packet.writeData(client);
+            size += buffer.limit();
+            buffer.releaseResources();
+        }
+        if("broadcastCache".equals(mode)) {
+            packet.closeBroadcast();
+        }
+        return size;
+    }
+
+    private static class StatusPacket extends WritablePacket<BenchmarkClient> {
+
+        @Override
+        protected boolean write(BenchmarkClient client, WritableBuffer buffer) {
+            for (int i = 0; i < PAYLOAD_INTS; i++) {
+                buffer.writeInt(i);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.MpscArrayQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the outbound queue of the clients with the previous {@link ConcurrentLinkedQueue} and its size counter.
+ *
+ * 8 threads add packets while a single thread polls them, like game threads sending packets to a client written by an I/O thread.
+ * The producers back off while the queue holds more than a bound, so the queue doesn't grow forever.
+ *
+ * @author JoeAlisson
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutboundQueueBenchmark {
+
+    private static final int BOUND = 4096;
+    private static final Object PACKET = new Object();
+
+    @Param({"linked", "mpsc"})
+    public String queue;
+
+    private Queue<Object> linkedQueue;
+    private AtomicInteger linkedSize;
+    private MpscArrayQueue<Object> mpscQueue;
+
+    @Setup
+    public void setup() {
+        linkedQueue = new ConcurrentLinkedQueue<>();
+        linkedSize = new AtomicInteger();
+        mpscQueue = new MpscArrayQueue<>(128);
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(8)
+    public boolean offer() {
+        if("mpsc".equals(queue)) {
+            return mpscQueue.size() < BOUND && mpscQueue.offer(PACKET);
+        }
+        if(linkedSize.get() < BOUND) {
+            linkedSize.incrementAndGet();
+            return linkedQueue.add(PACKET);
+        }
+        return false;
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(1)
+    public Object poll() {
+        if("mpsc".equals(queue)) {
+            return mpscQueue.poll();
+        }
+        Object packet = linkedQueue.poll();
+        if(packet != null) {
+            linkedSize.decrementAndGet();
+        }
+        return packet;
+    }
+}
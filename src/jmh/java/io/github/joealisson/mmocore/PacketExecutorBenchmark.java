@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.ReadPathBenchmark.BenchmarkClient;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the execution of packets that block for a while on a fixed thread pool and on virtual threads.
+ *
+ * Each operation executes a packet of every client, the packets sleep to simulate a blocking call (e.g. a database query).
+ * The virtual mode requires running the benchmark on Java 21 or later.
+ *
+ * @author JoeAlisson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PacketExecutorBenchmark {
+
+    private static final int FIXED_POOL_SIZE = 16;
+
+    @Param({"fixed", "virtual"})
+    public String mode;
+
+    @Param({"100", "1000"})
+    public int clients;
+
+    @Param({"1"})
+    public long blockingMillis;
+
+    private ExecutorService workers;
+    private PacketExecutor<BenchmarkClient> executor;
+    private final List<AsynchronousSocketChannel> channels = new ArrayList<>();
+    private final List<BenchmarkClient> clientList = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException {
+        if("virtual".equals(mode)) {
+            executor = new VirtualThreadPacketExecutor<>();
+        } else {
+            workers = Executors.newFixedThreadPool(FIXED_POOL_SIZE);
+            executor = new OrderedPacketExecutor<>(workers, 1);
+        }
+
+        ConnectionConfig config = new ConnectionConfig(new InetSocketAddress(0));
+        for (int i = 0; i < clients; i++) {
+            AsynchronousSocketChannel channel = AsynchronousSocketChannel.open();
+            channels.add(channel);
+            clientList.add(new BenchmarkClient(new Connection<>(channel, null, null, config)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if(workers != null) {
+            workers.shutdownNow();
+        }
+        for (AsynchronousSocketChannel channel : channels) {
+            channel.close();
+        }
+        channels.clear();
+        clientList.clear();
+    }
+
+    @Benchmark
+    public void executeBlockingPackets() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(clients);
+        for (BenchmarkClient client : clientList) {
+            BlockingPacket packet = new BlockingPacket(latch, blockingMillis);
+            packet.init(client, null);
+            executor.execute(packet);
+        }
+        latch.await();
+    }
+
+    private static class BlockingPacket extends ReadablePacket<BenchmarkClient> {
+
+        private final CountDownLatch latch;
+        private final long blockingMillis;
+
+        BlockingPacket(CountDownLatch latch, long blockingMillis) {
+            this.latch = latch;
+            this.blockingMillis = blockingMillis;
+        }
+
+        @Override
+        protected boolean read() {
+            return true;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Thread.sleep(blockingMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                latch.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the allocation of the inbound path: from a framed payload to the packet execution.
+ *
+ * Run with {@code ./gradlew jmh} and check the gc.alloc.rate.norm of each mode.
+ *
+ * @author JoeAlisson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadPathBenchmark {
+
+    private static final int PAYLOAD_SIZE = 64;
+
+    @Param({"allocating", "pooled"})
+    public String mode;
+
+    private AsynchronousSocketChannel channel;
+    private ReadHandler<BenchmarkClient> handler;
+    private BenchmarkClient client;
+    private ByteBuffer frame;
+    private long sum;
+
+    @Setup
+    public void setup() throws IOException {
+        boolean pooled = "pooled".equals(mode);
+        ConnectionConfig config = new ConnectionConfig(new InetSocketAddress(0));
+        config.reuseReadableBuffer = pooled;
+        config.complete();
+
+        ReadablePacketPool<PooledPacket> pool = new ReadablePacketPool<>(PooledPacket::new);
+        PacketHandler<BenchmarkClient> packetHandler = pooled ? (buffer, c) -> pool.get() : (buffer, c) -> new AllocatingPacket();
+        handler = new ReadHandler<>(packetHandler, Runnable::run);
+
+        channel = AsynchronousSocketChannel.open();
+        client = new BenchmarkClient(new Connection<>(channel, handler, null, config));
+
+        frame = ByteBuffer.allocateDirect(PAYLOAD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < PAYLOAD_SIZE / Long.BYTES; i++) {
+            frame.putLong(i);
+        }
+        frame.flip();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        channel.close();
+    }
+
+    @Benchmark
+    public long handleFrame() {
+        frame.position(0);
+        handler.handleFrame(client, frame, PAYLOAD_SIZE);
+        return sum;
+    }
+
+    private long consume(long value) {
+        return sum += value;
+    }
+
+    static class BenchmarkClient extends Client<Connection<BenchmarkClient>> {
+
+        BenchmarkClient(Connection<BenchmarkClient> connection) {
+            super(connection);
+        }
+
+        @Override
+        public boolean encrypt(Buffer data, int offset, int size) {
+            return true;
+        }
+
+        @Override
+        public boolean decrypt(Buffer data, int offset, int size) {
+            return true;
+        }
+
+        @Override
+        protected void onDisconnection() {
+            // nothing to do
+        }
+
+        @Override
+        public void onConnected() {
+            // nothing to do
+        }
+    }
+
+    private class AllocatingPacket extends ReadablePacket<BenchmarkClient> {
+
+        private long value;
+
+        @Override
+        protected boolean read() {
+            while (available() >= Long.BYTES) {
+                value += readLong();
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            consume(value);
+        }
+    }
+
+    private class PooledPacket extends PooledReadablePacket<BenchmarkClient> {
+
+        private long value;
+
+        @Override
+        protected boolean read() {
+            while (available() >= Long.BYTES) {
+                value += readLong();
+            }
+            return true;
+        }
+
+        @Override
+        protected void execute() {
+            consume(value);
+        }
+
+        @Override
+        protected void reset() {
+            value = 0;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.InternalWritableBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the writing of strings into a packet buffer: encoded by the charset, encoded directly into the buffer
+ * or copied from an {@link EncodedString}.
+ *
+ * Run with {@code ./gradlew jmh} and check the gc.alloc.rate.norm of each mode.
+ *
+ * @author JoeAlisson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StringEncodingBenchmark {
+
+    @Param({"charset", "direct", "encoded"})
+    public String mode;
+
+    @Param({"16", "256"})
+    public int length;
+
+    private ResourcePool resourcePool;
+    private String text;
+    private EncodedString encoded;
+
+    @Setup
+    public void setup() {
+        ConnectionConfig config = new ConnectionConfig(new InetSocketAddress(0));
+        config.complete();
+        resourcePool = config.resourcePool;
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        text = builder.toString();
+        encoded = EncodedString.of(text);
+    }
+
+    @Benchmark
+    public int writeString() {
+        InternalWritableBuffer buffer = InternalWritableBuffer.dynamicOf(resourcePool.getSegmentBuffer(), resourcePool);
+        switch (mode) {
+            case "charset":
+                buffer.writeBytes(text.getBytes(StandardCharsets.UTF_16LE));
+                buffer.writeChar('\000');
+                break;
+            case "encoded":
+                buffer.writeString(encoded);
+                break;
+            default:
+                buffer.writeString(text);
+        }
+        int position = buffer.position();
+        buffer.releaseResources();
+        return position;
+    }
+}
@@ -20,15 +20,20 @@ package io.github.joealisson.mmocore;
 
 import io.github.joealisson.mmocore.internal.InternalWritableBuffer;
 import io.github.joealisson.mmocore.internal.NotWrittenBufferException;
+import io.github.joealisson.mmocore.internal.TokenBucket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-import static io.github.joealisson.mmocore.ConnectionConfig.HEADER_SIZE;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
@@ -40,15 +45,30 @@ public abstract class Client<T extends Connection<?>> {
     private static final Logger LOGGER = LoggerFactory.getLogger(Client.class);
 
     private final T connection;
-    private final Queue<WritablePacket<? extends Client<T>>> packetsToWrite = new ConcurrentLinkedQueue<>();
+    private final PacketLanes<WritablePacket<? extends Client<T>>> packetsToWrite;
     private final AtomicBoolean writing = new AtomicBoolean(false);
     private final AtomicBoolean disconnecting = new AtomicBoolean(false);
-    private int estimateQueueSize = 0;
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicBoolean outboundCongested = new AtomicBoolean(false);
+    private final AtomicLong overBudgetSince = new AtomicLong();
+    private final AtomicInteger writeStalls = new AtomicInteger();
     private int dataSentSize;
+    private final List<ByteBuffer> writingBatch = new ArrayList<>();
+    private final AtomicInteger corks = new AtomicInteger();
+    private final AtomicInteger corkEpoch = new AtomicInteger();
+    private volatile boolean flushing;
     private volatile boolean isClosing;
     private boolean readingPayload;
     private int expectedReadSize;
+    private int skippingSize;
+    private volatile int maxFrameSize;
     private final AtomicBoolean readNext = new AtomicBoolean(false);
+    private final TokenBucket inboundBucket = new TokenBucket();
+    private final PacketMailbox mailbox = new PacketMailbox();
+    private volatile RateLimit rateLimit;
+    private final AtomicInteger inFlightPackets = new AtomicInteger();
+    private final AtomicBoolean readingSuspended = new AtomicBoolean(false);
+    private final AtomicBoolean readingShed = new AtomicBoolean(false);
 
     volatile boolean isReading;
 
@@ -63,40 +83,220 @@ public abstract class Client<T extends Connection<?>> {
             throw new IllegalArgumentException("The Connection is null or closed");
         }
         this.connection = connection;
+        this.packetsToWrite = new PacketLanes<>(connection.config.starvationLimit, connection.config.writeQueueCapacity);
     }
 
     /**
      * Sends a packet to this client.
      *
-     * If another packet is been sent to this client, the actual packet is put on a queue to be sent after all previous packets.
-     * Otherwise the packet is sent immediately.
+     * If another packet is been sent to this client, the actual packet is put on a queue to be sent after all previous packets
+     * of the same or higher priority. Otherwise the packet is sent immediately. See {@link WritablePacket#getPriority()}.
      *
      * @param packet to be sent.
      */
     protected final void writePacket(WritablePacket<? extends Client<T>> packet) {
-        if (!isConnected() || isNull(packet) || packetCanBeDropped(packet)) {
-            return;
+        enqueue(packet);
+    }
+
+    boolean enqueue(WritablePacket<? extends Client<T>> packet) {
+        if (!isConnected() || isNull(packet)) {
+            return false;
         }
 
-        estimateQueueSize++;
-        packetsToWrite.add(packet);
-        writeFairPacket();
+        packet.retainRecipient();
+        // a packet replacing a stale one doesn't increase the queue, so it's never dropped
+        WritablePacket<? extends Client<T>> replaced = packetsToWrite.replace(packet);
+        if(nonNull(replaced)) {
+            queued(packet);
+            discardQueued(replaced);
+        } else if(((packetsToWrite.size() > connection.dropPacketThreshold() || exceedsOutboundBudget(packet)) && !makeRoomFor(packet)) || !queue(packet)) {
+            packet.releaseRecipient();
+            return false;
+        }
+        if(!isCorked()) {
+            writeFairPacket();
+        }
+        return true;
+    }
+
+    /**
+     * Add the packet to the queue.
+     *
+     * @return false if the queue is full
+     */
+    private boolean queue(WritablePacket<? extends Client<T>> packet) {
+        WritablePacket<? extends Client<T>> replaced = packetsToWrite.add(packet);
+        if(replaced == packet) {
+            LOGGER.debug("The queue of {} is full, dropping {}", this, packet);
+            return false;
+        }
+        queued(packet);
+        if(nonNull(replaced)) {
+            discardQueued(replaced);
+        }
+        return true;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private void queued(WritablePacket packet) {
+        queuedBytes.addAndGet(packet.estimateSize(getResourcePool()));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private void unqueued(WritablePacket packet) {
+        long bytes = queuedBytes.addAndGet(-packet.estimateSize(getResourcePool()));
+        long budget = connection.config.outboundBudget;
+        if(budget > 0 && bytes <= budget) {
+            overBudgetSince.set(0);
+            if(bytes <= budget / 2 && outboundCongested.compareAndSet(true, false)) {
+                LOGGER.debug("Client {} drained the outbound budget", this);
+                onOutboundDrained();
+            }
+        }
+    }
+
+    /**
+     * Check if the packet exceeds the outbound budget, applying the policy when it's exceeded.
+     *
+     * @return true if a packet should be dropped to make room for the packet
+     */
+    @SuppressWarnings("rawtypes")
+    private boolean exceedsOutboundBudget(WritablePacket packet) {
+        long budget = connection.config.outboundBudget;
+        if(budget <= 0 || queuedBytes.get() + packet.estimateSize(getResourcePool()) <= budget) {
+            return false;
+        }
+        switch (connection.config.outboundBudgetPolicy) {
+            case PAUSE:
+                if(outboundCongested.compareAndSet(false, true)) {
+                    LOGGER.debug("Client {} exceeded the outbound budget, pausing producers", this);
+                    onOutboundCongested();
+                }
+                return false;
+            case DISCONNECT:
+                if(overBudgetSince.compareAndSet(0, System.nanoTime())) {
+                    scheduleBudgetGraceCheck(connection.config.outboundGracePeriod);
+                }
+                return false;
+            default:
+                return true;
+        }
     }
 
+    private void scheduleBudgetGraceCheck(long delay) {
+        boolean scheduled = connection.config.schedule(() -> {
+            long since = overBudgetSince.get();
+            if(since == 0 || !isConnected()) {
+                return;
+            }
+            long remaining = connection.config.outboundGracePeriod - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - since);
+            if(remaining > 0) {
+                scheduleBudgetGraceCheck(remaining);
+            } else {
+                LOGGER.warn("Client {} stayed over the outbound budget with {} bytes queued, disconnecting", this, queuedBytes.get());
+                disconnect();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+        if(!scheduled) {
+            LOGGER.debug("Could not schedule the outbound budget grace check of {}", this);
+        }
+    }
+
+    /**
+     * Drops a queued packet with lower priority to make room for the packet.
+     *
+     * @return false if the packet itself should be dropped
+     */
     @SuppressWarnings({"unchecked", "rawtypes"})
-    private boolean packetCanBeDropped(WritablePacket packet) {
-        return estimateQueueSize > connection.dropPacketThreshold() && packet.canBeDropped(this);
+    private boolean makeRoomFor(WritablePacket packet) {
+        WritablePacket<? extends Client<T>> evicted = packetsToWrite.evictBelow(packet, queued -> ((WritablePacket) queued).canBeDropped(this));
+        if(nonNull(evicted)) {
+            discardQueued(evicted);
+            return true;
+        }
+        return !packet.canBeDropped(this);
     }
 
     protected final void writePackets(Collection<WritablePacket<? extends Client<T>>> packets) {
         if(!isConnected() || isNull(packets) || packets.isEmpty()) {
             return;
         }
-        estimateQueueSize += packets.size();
-        packetsToWrite.addAll(packets);
+        for (WritablePacket<? extends Client<T>> packet : packets) {
+            packet.retainRecipient();
+            if(!queue(packet)) {
+                packet.releaseRecipient();
+            }
+        }
+        if(!isCorked()) {
+            writeFairPacket();
+        }
+    }
+
+    /**
+     * Define if the {@link #encrypt(Buffer, int, int)} doesn't change the data, e.g. there is no encryption or the handshake is not done.
+     *
+     * The packets broadcast by a {@link ClientGroup} to a pass-through client are sent without copy,
+     * sharing the same buffers among the clients. The data sent this way is not passed to {@link #encrypt(Buffer, int, int)}.
+     *
+     * @return true if the encryption doesn't change the data. Default is false.
+     */
+    protected boolean isPassThroughCipher() {
+        return false;
+    }
+
+    /**
+     * Holds the packets sent to this client until {@link #flush()} is called.
+     *
+     * While corked, the packets are only queued. When flushed, all the queued packets are sent together in a single write.
+     * Each call must be paired with a call to {@link #flush()}, the packets are sent when all corks are flushed.
+     *
+     * If a cork deadline is configured, the packets are flushed when the deadline elapses, even if the client is still corked.
+     */
+    public void cork() {
+        if(corks.getAndIncrement() == 0) {
+            scheduleCorkDeadline(corkEpoch.get());
+        }
+    }
+
+    /**
+     * Releases a cork made by {@link #cork()}. When no cork remains, the queued packets are sent together in a single write.
+     */
+    public void flush() {
+        if(corks.updateAndGet(count -> count > 0 ? count - 1 : 0) == 0) {
+            uncork();
+        }
+    }
+
+    /**
+     * @return if the packets sent to this client are being held by a cork
+     */
+    public boolean isCorked() {
+        return corks.get() > 0;
+    }
+
+    private void uncork() {
+        corkEpoch.incrementAndGet();
+        flushing = true;
         writeFairPacket();
     }
 
+    private void scheduleCorkDeadline(int epoch) {
+        long deadline = connection.config.corkDeadline;
+        if(deadline <= 0) {
+            return;
+        }
+        boolean scheduled = connection.config.schedule(() -> {
+            if(corkEpoch.get() == epoch && isCorked()) {
+                LOGGER.debug("Cork deadline of client {} elapsed, flushing", this);
+                corks.set(0);
+                uncork();
+            }
+        }, deadline, TimeUnit.MILLISECONDS);
+        if(!scheduled) {
+            LOGGER.debug("Could not schedule the cork deadline of {}", this);
+        }
+    }
+
     private void writeFairPacket() {
         if(writing.compareAndSet(false, true)) {
             connection.config.fairnessController.nextFairAction(this, Client::writeNextPacket);
@@ -104,56 +304,150 @@ public abstract class Client<T extends Connection<?>> {
     }
 
     private void writeNextPacket() {
-        WritablePacket<? extends Client<T>> packet = packetsToWrite.poll();
+        if(isCorked() && !isClosing) {
+            releaseWritingResource();
+            // the client may be flushed meanwhile, whoever sees it uncorked sends the packets
+            if(!isCorked() && packetsToWrite.hasAvailable()) {
+                writeFairPacket();
+            }
+            return;
+        }
+        WritablePacket<? extends Client<T>> packet = pollPacket();
         if(isNull(packet)) {
+            flushing = false;
             releaseWritingResource();
             LOGGER.debug("There is no packet to send");
             if(isClosing) {
                 disconnect();
+            } else if(!isCorked() && packetsToWrite.hasAvailable()) {
+                // a packet was published after the poll, but its producer may have seen the client still writing.
+                // A packet published after this check is sent by its producer, which sees the client not writing
+                writeFairPacket();
             }
+        } else if(connection.config.writeBatchPackets > 1 || flushing) {
+            writeBatch(packet);
         } else {
-            estimateQueueSize--;
             write(packet);
         }
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private void write(WritablePacket packet) {
+    private void write(WritablePacket<? extends Client<T>> packet) {
         boolean written = false;
-        InternalWritableBuffer buffer = null;
+        ByteBuffer[] buffers = null;
+        try {
+            buffers = serialize(packet);
+            if(nonNull(buffers)) {
+                written = connection.write(buffers);
+                LOGGER.debug("Sending packet {}[{}] to {}", packet, dataSentSize, this);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Error while {} writing {}", this, packet, e);
+        } finally {
+            if(!written) {
+                handleNotWritten(buffers);
+            }
+        }
+    }
+
+    private void writeBatch(WritablePacket<? extends Client<T>> packet) {
+        boolean written = false;
+        ByteBuffer[] buffers = null;
         try {
-             buffer = packet.writeData(this);
+            // a flush sends all the held packets together
+            int maxPackets = flushing ? Integer.MAX_VALUE : connection.config.writeBatchPackets;
+            flushing = false;
+            int maxBytes = connection.config.writeBatchBytes;
+            int batchSize = 0;
+            int packets = 0;
+            while (nonNull(packet)) {
+                ByteBuffer[] packetBuffers = serialize(packet);
+                if(nonNull(packetBuffers)) {
+                    Collections.addAll(writingBatch, packetBuffers);
+                    batchSize += dataSentSize;
+                }
+                if(++packets >= maxPackets || batchSize >= maxBytes || isNull(packet = pollPacket())) {
+                    break;
+                }
+            }
 
-            var payloadSize = buffer.limit() - HEADER_SIZE;
-            if(payloadSize <= 0) {
-                return;
+            buffers = drainWritingBatch();
+            if(buffers.length > 0) {
+                dataSentSize = batchSize;
+                LOGGER.debug("Sending {} packets [{}] to {}", packets, batchSize, this);
+                written = connection.write(buffers);
             }
+        } catch (Exception e) {
+            LOGGER.error("Error while {} writing a batch of packets", this, e);
+        } finally {
+            if(!written) {
+                handleNotWritten(isNull(buffers) ? drainWritingBatch() : buffers);
+            }
+        }
+    }
 
-            if(encrypt(buffer, HEADER_SIZE, payloadSize)) {
-                dataSentSize = buffer.limit();
+    private ByteBuffer[] drainWritingBatch() {
+        // the batch must be drained before the write, its completion can start the next batch on another thread
+        ByteBuffer[] buffers = writingBatch.toArray(new ByteBuffer[0]);
+        writingBatch.clear();
+        return buffers;
+    }
 
-                if (dataSentSize <= HEADER_SIZE) {
-                    return;
-                }
+    /**
+     * Writes, encrypts and frames the packet's data.
+     *
+     * @param packet the packet to be serialized
+     * @return the buffers holding the framed packet or null if the packet was not written
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ByteBuffer[] serialize(WritablePacket packet) {
+        if(packet instanceof SharedFramePacket) {
+            SharedFrame frame = ((SharedFramePacket) packet).frame();
+            connection.holdSharedFrame(frame);
+            dataSentSize = frame.size();
+            return frame.views();
+        }
+        InternalWritableBuffer buffer = null;
+        try {
+            try {
+                buffer = packet.writeData(this);
+            } finally {
+                packet.releaseRecipient();
+            }
 
-                packet.writeHeader(buffer, dataSentSize);
-                written = connection.write(buffer.toByteBuffers());
-                LOGGER.debug("Sending packet {}[{}] to {}", packet, dataSentSize, this);
+            FrameCodec frameCodec = getFrameCodec();
+            int reservedHeaderSize = frameCodec.maxHeaderSize();
+            var payloadSize = buffer.limit() - reservedHeaderSize;
+
+            if(payloadSize > 0 && encrypt(buffer, reservedHeaderSize, payloadSize)) {
+                payloadSize = buffer.limit() - reservedHeaderSize;
+
+                if (payloadSize > 0) {
+                    int headerSize = frameCodec.headerSize(payloadSize);
+                    int headerIndex = reservedHeaderSize - headerSize;
+                    frameCodec.encode(buffer, headerIndex, payloadSize);
+                    dataSentSize = headerSize + payloadSize;
+                    ByteBuffer[] buffers = buffer.toByteBuffers(headerIndex);
+                    buffer = null;
+                    return buffers;
+                }
             }
         } catch (NotWrittenBufferException ignored) {
             LOGGER.debug("packet was not written {} to {}", packet, this);
         } catch (Exception e) {
             LOGGER.error("Error while {} writing {}", this, packet, e);
         } finally {
-            if(!written) {
-                handleNotWritten(buffer);
+            if(nonNull(buffer)) {
+                buffer.releaseResources();
             }
         }
+        return null;
     }
 
-    private void handleNotWritten(InternalWritableBuffer buffer) {
-        if(!releaseWritingResource() && nonNull(buffer)) {
-            buffer.releaseResources();
+    private void handleNotWritten(ByteBuffer[] buffers) {
+        if(!releaseWritingResource() && nonNull(buffers)) {
+            for (ByteBuffer buffer : buffers) {
+                getResourcePool().recycleBuffer(buffer);
+            }
         }
         if(isConnected()) {
             writeFairPacket();
@@ -166,17 +460,49 @@ public abstract class Client<T extends Connection<?>> {
             return;
         }
         isReading = true;
-        expectedReadSize = HEADER_SIZE;
+        if(connection.isReadAheadEnabled()) {
+            connection.readAhead();
+            return;
+        }
+        expectedReadSize = connection.config.frameCodec.minHeaderSize();
         readingPayload = false;
         connection.readHeader();
     }
 
+    void readHeaderByte() {
+        expectedReadSize = 1;
+        connection.readHeaderByte();
+    }
+
     void readPayload(int dataSize) {
+        if(connection.requiresSegments(dataSize)) {
+            readPayloadSegments(dataSize, null);
+            connection.read();
+            return;
+        }
         expectedReadSize = dataSize;
         readingPayload = true;
         connection.read(dataSize);
     }
 
+    void readPayloadSegments(int dataSize, ByteBuffer initialData) {
+        expectedReadSize = dataSize - connection.prepareSegments(dataSize, initialData);
+        readingPayload = true;
+    }
+
+    void skipPayload(int dataSize) {
+        skippingSize = dataSize;
+        connection.skip(dataSize);
+    }
+
+    int getSkippingSize() {
+        return skippingSize;
+    }
+
+    void setSkippingSize(int size) {
+        skippingSize = size;
+    }
+
     public void readNextPacket() {
         if(isReading) {
             readNext.set(true);
@@ -206,15 +532,46 @@ public abstract class Client<T extends Connection<?>> {
         if(!isConnected()) {
             return;
         }
-        packetsToWrite.clear();
+        clearPacketsToWrite();
         if(nonNull(packet)) {
-            packetsToWrite.add(packet);
+            packet.retainRecipient();
+            if(!queue(packet)) {
+                packet.releaseRecipient();
+            }
         }
         isClosing = true;
         LOGGER.debug("Closing client connection {} with packet {}", this, packet);
         writeFairPacket();
     }
 
+    private void clearPacketsToWrite() {
+        WritablePacket<? extends Client<T>> packet;
+        while (nonNull(packet = pollPacket())) {
+            discard(packet);
+        }
+    }
+
+    private WritablePacket<? extends Client<T>> pollPacket() {
+        WritablePacket<? extends Client<T>> packet = packetsToWrite.poll();
+        if(nonNull(packet)) {
+            unqueued(packet);
+        }
+        return packet;
+    }
+
+    private void discardQueued(WritablePacket<? extends Client<T>> packet) {
+        unqueued(packet);
+        discard(packet);
+    }
+
+    private void discard(WritablePacket<? extends Client<T>> packet) {
+        if(packet instanceof SharedFramePacket) {
+            ((SharedFramePacket<?>) packet).frame().release();
+        } else {
+            packet.releaseRecipient();
+        }
+    }
+
     void resumeSend(long result) {
         dataSentSize-= result;
         connection.write();
@@ -237,7 +594,7 @@ public abstract class Client<T extends Connection<?>> {
                 LOGGER.debug("Client {} disconnecting", this);
                 onDisconnection();
             } finally {
-                packetsToWrite.clear();
+                clearPacketsToWrite();
                 connection.close();
             }
         }
@@ -266,16 +623,31 @@ public abstract class Client<T extends Connection<?>> {
     }
 
     /**
-     * @return the estimate amount of packet queued to send
+     * @return the estimated amount of bytes of the packets queued to send. See {@link ConnectionBuilder#outboundBudget(long, OutboundBudgetPolicy)}
+     */
+    public long getQueuedBytes() {
+        return queuedBytes.get();
+    }
+
+    /**
+     * @return the amount of packets queued to send
      */
     public int getEstimateQueueSize() {
-        return estimateQueueSize;
+        return packetsToWrite.size();
     }
 
     ResourcePool getResourcePool() {
         return connection.getResourcePool();
     }
 
+    PacketMailbox getMailbox() {
+        return mailbox;
+    }
+
+    FrameCodec getFrameCodec() {
+        return connection.config.frameCodec;
+    }
+
     boolean isReadingPayload() {
         return readingPayload;
     }
@@ -289,10 +661,175 @@ public abstract class Client<T extends Connection<?>> {
         return expectedReadSize;
     }
 
+    /**
+     * Override the max payload size of incoming frames defined on the connection configuration.
+     *
+     * @param size the max payload size of a frame. A value lower or equals to 0 uses the configured one.
+     */
+    public void setMaxFrameSize(int size) {
+        this.maxFrameSize = size;
+    }
+
+    int getMaxFrameSize() {
+        int size = maxFrameSize;
+        return size > 0 ? size : connection.config.maxFrameSize;
+    }
+
+    /**
+     * Override the rate limit of incoming packets defined on the connection configuration.
+     *
+     * @param rateLimit the rate limit of this client. null to use the configured one.
+     */
+    public void setRateLimit(RateLimit rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
+    RateLimit getRateLimit() {
+        RateLimit limit = rateLimit;
+        return nonNull(limit) ? limit : connection.config.rateLimit;
+    }
+
+    boolean tryConsumeRate(RateLimit limit, int size) {
+        return inboundBucket.tryConsume(limit.packetsPerSecond(), limit.bytesPerSecond(), size, System.nanoTime());
+    }
+
     boolean canReadNextPacket() {
+        if(isInboundSaturated() || isShedByOverload()) {
+            return false;
+        }
         return connection.isAutoReadingEnabled() || readNext.getAndSet(false);
     }
 
+    private boolean isInboundSaturated() {
+        int highWatermark = connection.config.inboundHighWatermark;
+        if(highWatermark <= 0 || inFlightPackets.get() < highWatermark) {
+            return false;
+        }
+        readingSuspended.set(true);
+        if(inFlightPackets.get() > connection.config.inboundLowWatermark) {
+            LOGGER.debug("Client {} reached the inbound high watermark, suspending reading", this);
+            return true;
+        }
+        // the packets were executed meanwhile, whoever clears the flag resumes the reading
+        return !readingSuspended.compareAndSet(true, false);
+    }
+
+    private boolean isShedByOverload() {
+        OverloadController overloadController = connection.config.overloadController;
+        if(isNull(overloadController) || !overloadController.shouldShed(inFlightPackets.get())) {
+            return false;
+        }
+        LOGGER.debug("Server is overloaded, shedding the reading of client {}", this);
+        readingShed.set(true);
+        overloadController.shed(this);
+        return true;
+    }
+
+    /**
+     * Resume the reading stopped by {@link #canReadNextPacket()} when the client was resumed meanwhile. The check is
+     * not repeated while the reading is still suspended or shed, so the client is not shed twice.
+     */
+    void readIfResumed() {
+        if(!readingShed.get() && !readingSuspended.get() && canReadNextPacket()) {
+            read();
+        }
+    }
+
+    void resumeShedReading() {
+        if(readingShed.compareAndSet(true, false)) {
+            LOGGER.debug("Server overload drained, resuming reading of client {}", this);
+            resumeReading();
+        }
+    }
+
+    private void resumeReading() {
+        if(connection.isAutoReadingEnabled() || readNext.getAndSet(false)) {
+            read();
+        }
+    }
+
+    boolean isTrackingInFlightPackets() {
+        return connection.config.inboundHighWatermark > 0 || nonNull(connection.config.overloadController);
+    }
+
+    void packetSubmitted() {
+        int clientInFlight = inFlightPackets.incrementAndGet();
+        OverloadController overloadController = connection.config.overloadController;
+        if(nonNull(overloadController)) {
+            overloadController.packetSubmitted(clientInFlight);
+        }
+    }
+
+    void packetExecuted() {
+        int clientInFlight = inFlightPackets.decrementAndGet();
+        OverloadController overloadController = connection.config.overloadController;
+        if(nonNull(overloadController)) {
+            overloadController.packetExecuted(clientInFlight);
+        }
+        if(clientInFlight <= connection.config.inboundLowWatermark && readingSuspended.compareAndSet(true, false)) {
+            LOGGER.debug("Client {} reached the inbound low watermark, resuming reading", this);
+            resumeReading();
+        }
+    }
+
+    /**
+     * @return the amount of packets submitted to the {@link PacketExecutor} that have not finished its execution.
+     * It's only counted when the inbound backpressure or the overload protection is enabled.
+     */
+    public int getInFlightPackets() {
+        return inFlightPackets.get();
+    }
+
+    void writeStalled() {
+        int stalls = writeStalls.incrementAndGet();
+        LOGGER.debug("The write to client {} is stalled, {} stalls", this, stalls);
+        if(connection.config.writeStallPolicy == WriteStallPolicy.MARK_SLOW) {
+            onWriteStalled();
+        }
+    }
+
+    /**
+     * @return the amount of writes to this client that stalled for longer than the write timeout.
+     * See {@link ConnectionBuilder#writeTimeout(long, WriteStallPolicy)}
+     */
+    public int getWriteStalls() {
+        return writeStalls.get();
+    }
+
+    /**
+     * @return true if the current write to this client is stalled for longer than the write timeout
+     */
+    public boolean isWriteStalled() {
+        return connection.isWriteStalled();
+    }
+
+    /**
+     * Called when a write to this client is stalled for longer than the write timeout with the {@link WriteStallPolicy#MARK_SLOW} policy.
+     *
+     * The client may be behind a bad link or no longer reading, the producers of packets to this client should slow down.
+     * This method is called by the scheduler thread once per stalled write.
+     */
+    protected void onWriteStalled() {
+        // no-op by default
+    }
+
+    /**
+     * Called when the bytes queued to this client exceed the outbound budget with the {@link OutboundBudgetPolicy#PAUSE} policy.
+     *
+     * The producers of packets to this client, e.g. the updates of the surroundings, should pause until {@link #onOutboundDrained()} is called.
+     * This method is called by the thread sending the packet.
+     */
+    protected void onOutboundCongested() {
+        // no-op by default
+    }
+
+    /**
+     * Called when the bytes queued to this client drop to half of the outbound budget after {@link #onOutboundCongested()}.
+     */
+    protected void onOutboundDrained() {
+        // no-op by default
+    }
+
     /**
      * Encrypt the data in-place.
      * @param data - the data to be encrypted
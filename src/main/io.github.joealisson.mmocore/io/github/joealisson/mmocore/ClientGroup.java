@@ -0,0 +1,186 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A group of clients that receives the same packets.
+ *
+ * A packet broadcast to a group is written only once into a shared buffer. Each client receives a copy of the shared data,
+ * encrypted and framed by the client itself. So the packet's data must not change after it's broadcast.
+ *
+ * The clients with a pass-through cipher (see {@link Client#isPassThroughCipher()}) don't copy the data, they share the
+ * same framed buffers, which are returned to the pool when the last client finishes writing it. Likewise, the shared
+ * buffer is returned to the pool when the last client has copied it.
+ *
+ * The disconnected clients are removed from the group on the next broadcast.
+ *
+ * @author JoeAlisson
+ */
+public class ClientGroup<T extends Client<Connection<T>>> implements Iterable<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientGroup.class);
+
+    private final Set<T> clients = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Add a client to the group
+     *
+     * @param client the client to be added
+     * @return true if the client was not in the group
+     */
+    public boolean add(T client) {
+        return clients.add(client);
+    }
+
+    /**
+     * Remove a client from the group
+     *
+     * @param client the client to be removed
+     * @return true if the client was in the group
+     */
+    public boolean remove(T client) {
+        return clients.remove(client);
+    }
+
+    public boolean contains(T client) {
+        return clients.contains(client);
+    }
+
+    public int size() {
+        return clients.size();
+    }
+
+    public boolean isEmpty() {
+        return clients.isEmpty();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return clients.iterator();
+    }
+
+    /**
+     * Sends the packet to all clients of the group.
+     *
+     * @param packet the packet to be sent
+     */
+    public void broadcast(WritablePacket<T> packet) {
+        if(isNull(packet)) {
+            return;
+        }
+        // holds the shared data until all clients have received the packet
+        packet.retainRecipient();
+        try {
+            if(writeShared(clients, packet)) {
+                SharedFrame frame = null;
+                for (Iterator<T> iterator = clients.iterator(); iterator.hasNext(); ) {
+                    T client = iterator.next();
+                    if(client.isConnected()) {
+                        frame = send(client, packet, frame);
+                    } else {
+                        iterator.remove();
+                    }
+                }
+                releaseFrame(frame);
+            }
+        } finally {
+            packet.releaseRecipient();
+        }
+    }
+
+    /**
+     * Sends the packet to all the clients.
+     *
+     * The packet's data is written once and shared by all clients.
+     *
+     * @param clients the clients to send the packet
+     * @param packet the packet to be sent
+     * @param <T> the client type
+     */
+    public static <T extends Client<Connection<T>>> void broadcast(Collection<T> clients, WritablePacket<T> packet) {
+        if(isNull(clients) || isNull(packet)) {
+            return;
+        }
+        packet.retainRecipient();
+        try {
+            if(writeShared(clients, packet)) {
+                SharedFrame frame = null;
+                for (T client : clients) {
+                    frame = send(client, packet, frame);
+                }
+                releaseFrame(frame);
+            }
+        } finally {
+            packet.releaseRecipient();
+        }
+    }
+
+    /**
+     * Sends the packet to the client. The pass-through clients share the same frame, created on the first use.
+     *
+     * @return the shared frame
+     */
+    private static <T extends Client<Connection<T>>> SharedFrame send(T client, WritablePacket<T> packet, SharedFrame frame) {
+        if(client.isPassThroughCipher()) {
+            if(isNull(frame)) {
+                frame = packet.sharedFrame(client);
+            }
+            if(nonNull(frame) && frame.isEncodedBy(client.getFrameCodec())) {
+                frame.retain();
+                if(!client.enqueue(new SharedFramePacket<>(packet, frame))) {
+                    frame.release();
+                }
+                return frame;
+            }
+        }
+        client.writePacket(packet);
+        return frame;
+    }
+
+    private static void releaseFrame(SharedFrame frame) {
+        if(nonNull(frame)) {
+            frame.release();
+        }
+    }
+
+    private static <T extends Client<Connection<T>>> boolean writeShared(Collection<T> clients, WritablePacket<T> packet) {
+        for (T client : clients) {
+            if(client.isConnected()) {
+                try {
+                    return packet.writeSharedData(client);
+                } catch (Exception e) {
+                    LOGGER.error("Error while writing the broadcast packet {}", packet, e);
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
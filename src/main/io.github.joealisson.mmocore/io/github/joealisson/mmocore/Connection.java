@@ -18,15 +18,22 @@
  */
 package io.github.joealisson.mmocore;
 
+import io.github.joealisson.mmocore.internal.SegmentedReadableBuffer;
+import io.github.joealisson.mmocore.internal.SinglePacketBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.AsynchronousSocketChannel;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 /**
@@ -42,14 +49,23 @@ public class Connection<T extends Client<Connection<T>>> {
     final ConnectionConfig config;
     private T client;
 
+    private final SinglePacketBuffer readableView;
     private ByteBuffer readingBuffer;
+    private ByteBuffer[] readingSegments;
+    private int readingSegmentsSize;
     private ByteBuffer[] writingBuffers;
+    private int writingOffset;
+    private List<SharedFrame> writingFrames;
+    private volatile long writeStartedAt;
+    private long reportedStall;
+    private final AtomicBoolean stallWatchdog = new AtomicBoolean(false);
 
     Connection(AsynchronousSocketChannel channel, ReadHandler<T> readHandler, WriteHandler<T> writeHandler, ConnectionConfig config) {
         this.channel = channel;
         this.readHandler = readHandler;
         this.writeHandler = writeHandler;
         this.config = config;
+        this.readableView = config.reuseReadableBuffer ? new SinglePacketBuffer() : null;
     }
 
     void setClient(T client) {
@@ -58,14 +74,26 @@ public class Connection<T extends Client<Connection<T>>> {
 
     final void read() {
         if(channel.isOpen()) {
-            channel.read(readingBuffer, client, readHandler);
+            if(nonNull(readingSegments)) {
+                channel.read(readingSegments, 0, readingSegments.length, -1, TimeUnit.MILLISECONDS, client, readHandler.segmentsHandler());
+            } else {
+                channel.read(readingBuffer, client, readHandler);
+            }
         }
     }
 
     final void readHeader() {
         if(channel.isOpen()) {
             releaseReadingBuffer();
-            readingBuffer = config.resourcePool.getHeaderBuffer();
+            readingBuffer = config.resourcePool.getBuffer(config.frameCodec.maxHeaderSize()).limit(config.frameCodec.minHeaderSize());
+            read();
+        }
+    }
+
+    final void readHeaderByte() {
+        if(channel.isOpen()) {
+            int headerRead = readingBuffer.limit();
+            readingBuffer.limit(headerRead + 1).position(headerRead);
             read();
         }
     }
@@ -77,18 +105,115 @@ public class Connection<T extends Client<Connection<T>>> {
         }
     }
 
+    void skip(int size) {
+        if(channel.isOpen()) {
+            readingBuffer = config.resourcePool.recycleAndGetNew(readingBuffer, Math.min(size, config.resourcePool.getSegmentSize()));
+            read();
+        }
+    }
+
+    boolean requiresSegments(int size) {
+        return size > config.resourcePool.largestBufferSize();
+    }
+
+    /**
+     * Prepare pooled segments to read a payload greater than the largest pooled buffer.
+     *
+     * @param size the payload size
+     * @param initialData the data already read of the payload, may be null
+     * @return the amount of data copied from the initial data
+     */
+    int prepareSegments(int size, ByteBuffer initialData) {
+        int segmentSize = config.resourcePool.largestBufferSize();
+        int count = (size + segmentSize - 1) / segmentSize;
+        readingSegments = new ByteBuffer[count];
+        readingSegmentsSize = size;
+        for (int i = 0; i < count; i++) {
+            readingSegments[i] = config.resourcePool.getBuffer(segmentSize).clear().limit(Math.min(segmentSize, size - i * segmentSize));
+        }
+
+        int copied = 0;
+        if(nonNull(initialData)) {
+            copied = initialData.remaining();
+            for (int i = 0; initialData.hasRemaining(); i++) {
+                int limit = initialData.limit();
+                initialData.limit(initialData.position() + Math.min(initialData.remaining(), readingSegments[i].remaining()));
+                readingSegments[i].put(initialData);
+                initialData.limit(limit);
+            }
+        }
+        return copied;
+    }
+
+    boolean isReadingSegments() {
+        return nonNull(readingSegments);
+    }
+
+    ReadableBuffer readingSegmentsBuffer() {
+        for (ByteBuffer segment : readingSegments) {
+            segment.flip();
+        }
+        return new SegmentedReadableBuffer(readingSegments, config.resourcePool.largestBufferSize(), readingSegmentsSize);
+    }
+
+    void releaseReadingSegments() {
+        ByteBuffer[] segments = readingSegments;
+        readingSegments = null;
+        if(nonNull(segments)) {
+            for (ByteBuffer segment : segments) {
+                config.resourcePool.recycleBuffer(segment);
+            }
+        }
+    }
+
+    final void readAhead() {
+        if(channel.isOpen()) {
+            if(isNull(readingBuffer)) {
+                readingBuffer = config.resourcePool.getBuffer(config.readAheadBufferSize);
+            }
+            readHandler.handleReadAhead(client);
+        }
+    }
+
+    void compactReadingBuffer(int requiredSize) {
+        readingBuffer.compact();
+        if(requiredSize > readingBuffer.capacity()) {
+            ByteBuffer buffer = config.resourcePool.getBuffer(requiredSize);
+            buffer.put(readingBuffer.flip());
+            config.resourcePool.recycleBuffer(readingBuffer);
+            readingBuffer = buffer;
+        } else if(readingBuffer.position() == 0 && readingBuffer.capacity() > config.readAheadBufferSize) {
+            config.resourcePool.recycleBuffer(readingBuffer);
+            readingBuffer = config.resourcePool.getBuffer(config.readAheadBufferSize);
+        }
+    }
+
     final boolean write(ByteBuffer[] buffers) {
         if(!channel.isOpen()) {
             return false;
         }
         writingBuffers = buffers;
+        writingOffset = 0;
         write();
         return true;
     }
 
     final void write() {
         if(channel.isOpen() && nonNull(writingBuffers)) {
-            channel.write(writingBuffers, 0, writingBuffers.length, -1, TimeUnit.MILLISECONDS,  client, writeHandler);
+            // skip the buffers already sent by a partial write
+            while (writingOffset < writingBuffers.length - 1 && !writingBuffers[writingOffset].hasRemaining()) {
+                writingOffset++;
+            }
+            writeStartedAt = System.nanoTime();
+            long timeout = -1;
+            if(config.writeTimeout > 0) {
+                if(config.writeStallPolicy == WriteStallPolicy.DISCONNECT) {
+                    timeout = config.writeTimeout;
+                } else {
+                    watchStall();
+                }
+            }
+            channel.write(writingBuffers, writingOffset, writingBuffers.length - writingOffset, timeout, TimeUnit.MILLISECONDS,  client, writeHandler);
         } else if(nonNull(client)) {
             client.finishWriting();
         }
@@ -98,6 +223,17 @@ public class Connection<T extends Client<Connection<T>>> {
         return readingBuffer;
     }
 
+    ReadableBuffer readableBufferOf(ByteBuffer buffer) {
+        if(nonNull(readableView)) {
+            readableView.wrap(buffer);
+            return readableView;
+        }
+        if(buffer.position() > 0) {
+            return ReadableBuffer.of(buffer.slice().order(ByteOrder.LITTLE_ENDIAN));
+        }
+        return ReadableBuffer.of(buffer);
+    }
+
     private void releaseReadingBuffer() {
         if(nonNull(readingBuffer)) {
             config.resourcePool.recycleBuffer(readingBuffer);
@@ -105,8 +241,72 @@ public class Connection<T extends Client<Connection<T>>> {
         }
     }
 
+    /**
+     * Hold a reference of the frame until the current writing is finished.
+     *
+     * @param frame the frame being written
+     */
+    void holdSharedFrame(SharedFrame frame) {
+        if(isNull(writingFrames)) {
+            writingFrames = new ArrayList<>(4);
+        }
+        writingFrames.add(frame);
+    }
+
+    private void watchStall() {
+        if(stallWatchdog.compareAndSet(false, true) && !config.schedule(this::checkStall, config.writeTimeout, TimeUnit.MILLISECONDS)) {
+            stallWatchdog.set(false);
+            LOGGER.debug("Could not watch the writes of {}", client);
+        }
+    }
+
+    /**
+     * Check if the outstanding write is stalled. The check is rescheduled while there are writes outstanding.
+     */
+    private void checkStall() {
+        long startedAt = writeStartedAt;
+        T stalledClient = client;
+        if(startedAt == 0 || isNull(stalledClient) || !channel.isOpen()) {
+            stallWatchdog.set(false);
+            // a write may be started meanwhile, whoever arms the watchdog checks it
+            if(writeStartedAt != 0 && channel.isOpen()) {
+                watchStall();
+            }
+            return;
+        }
+        long timeout = TimeUnit.MILLISECONDS.toNanos(config.writeTimeout);
+        long elapsed = System.nanoTime() - startedAt;
+        long delay = timeout - elapsed;
+        if(delay <= 0) {
+            if(reportedStall != startedAt) {
+                reportedStall = startedAt;
+                stalledClient.writeStalled();
+            }
+            delay = timeout;
+        }
+        if(!config.schedule(this::checkStall, delay, TimeUnit.NANOSECONDS)) {
+            stallWatchdog.set(false);
+            LOGGER.debug("Could not watch the writes of {}", stalledClient);
+        }
+    }
+
+    /**
+     * @return true if there is an outstanding write without progress for longer than the write timeout
+     */
+    boolean isWriteStalled() {
+        long startedAt = writeStartedAt;
+        return config.writeTimeout > 0 && startedAt != 0 && System.nanoTime() - startedAt >= TimeUnit.MILLISECONDS.toNanos(config.writeTimeout);
+    }
+
     boolean releaseWritingBuffer() {
+        writeStartedAt = 0;
         boolean released = false;
+        if(nonNull(writingFrames) && !writingFrames.isEmpty()) {
+            for (SharedFrame frame : writingFrames) {
+                frame.release();
+            }
+            writingFrames.clear();
+        }
         if(nonNull(writingBuffers)) {
             for (ByteBuffer buffer : writingBuffers) {
                 config.resourcePool.recycleBuffer(buffer);
@@ -119,6 +319,7 @@ public class Connection<T extends Client<Connection<T>>> {
 
     void close() {
         releaseReadingBuffer();
+        releaseReadingSegments();
         releaseWritingBuffer();
         try {
             if(channel.isOpen()) {
@@ -155,4 +356,8 @@ public class Connection<T extends Client<Connection<T>>> {
     boolean isAutoReadingEnabled() {
         return config.autoReading;
     }
+
+    boolean isReadAheadEnabled() {
+        return config.readAheadBufferSize > 0;
+    }
 }
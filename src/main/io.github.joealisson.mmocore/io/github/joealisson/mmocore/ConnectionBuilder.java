@@ -23,6 +23,7 @@ import java.net.InetSocketAddress;
 
 import static java.lang.Thread.MAX_PRIORITY;
 import static java.lang.Thread.MIN_PRIORITY;
+import static java.util.Objects.isNull;
 
 /**
  * Builds the {@link ConnectionHandler} responsible to manage all incoming connections.
@@ -237,6 +238,330 @@ public class ConnectionBuilder<T extends Client<Connection<T>>> {
         return this;
     }
 
+    /**
+     * Define the codec used to frame the packets.
+     *
+     * Both sides of the connection must use the same codec.
+     * The default codec is {@link FrameCodec#shortLE()}.
+     *
+     * @param codec the frame codec
+     * @return this
+     */
+    public ConnectionBuilder<T> frameCodec(FrameCodec codec) {
+        if(isNull(codec)) {
+            throw new IllegalArgumentException("The frame codec must not be null");
+        }
+        config.frameCodec = codec;
+        return this;
+    }
+
+    /**
+     * Define the watermarks of the inbound backpressure.
+     *
+     * The library counts the packets of each client submitted to the {@link PacketExecutor} that have not finished its execution.
+     * When the count reaches the high watermark, the client's socket is no longer read until the count drops to the low watermark.
+     * So the exceeding data stays on the kernel buffers instead of the executor's queue.
+     *
+     * When enabled the {@link PacketExecutor} receives a wrapper of the packets, except for the {@link PooledReadablePacket}s.
+     * By default, the backpressure is disabled.
+     *
+     * @param lowWatermark the amount of packets in execution to resume the reading
+     * @param highWatermark the amount of packets in execution to pause the reading. Zero to disable
+     * @return this
+     *
+     * @throws IllegalArgumentException if the low watermark is negative or is not less than the high watermark.
+     */
+    public ConnectionBuilder<T> inboundBackpressure(int lowWatermark, int highWatermark) {
+        if(highWatermark > 0 && (lowWatermark < 0 || lowWatermark >= highWatermark)) {
+            throw new IllegalArgumentException("The low watermark must be positive and less than the high watermark");
+        }
+        config.inboundLowWatermark = lowWatermark;
+        config.inboundHighWatermark = highWatermark;
+        return this;
+    }
+
+    /**
+     * Define the watermarks of the overload protection.
+     *
+     * The library counts the packets of all clients submitted to the {@link PacketExecutor} that have not finished its execution.
+     * When the count reaches the high watermark, the clients with more packets in execution than the average are no longer read,
+     * so the noisiest clients are shed first. The reading is resumed when the count drops to the low watermark.
+     *
+     * The metrics of the overload protection are available through {@link ConnectionHandler#overloadStats()}.
+     * When enabled the {@link PacketExecutor} receives a wrapper of the packets, except for the {@link PooledReadablePacket}s.
+     * By default, the overload protection is disabled.
+     *
+     * @param lowWatermark the amount of packets in execution to resume the reading
+     * @param highWatermark the amount of packets in execution to shed the reading. Zero to disable
+     * @return this
+     *
+     * @throws IllegalArgumentException if the low watermark is negative or is not less than the high watermark.
+     */
+    public ConnectionBuilder<T> overloadProtection(int lowWatermark, int highWatermark) {
+        if(highWatermark > 0 && (lowWatermark < 0 || lowWatermark >= highWatermark)) {
+            throw new IllegalArgumentException("The low watermark must be positive and less than the high watermark");
+        }
+        config.overloadLowWatermark = lowWatermark;
+        config.overloadHighWatermark = highWatermark;
+        return this;
+    }
+
+    /**
+     * Define the rate limit of incoming packets of each client.
+     *
+     * The limit is checked before the packet is decrypted and can be overridden by {@link Client#setRateLimit(RateLimit)}.
+     * By default, there is no rate limit.
+     *
+     * @param rateLimit the rate limit applied to the clients. null to disable.
+     * @return this
+     */
+    public ConnectionBuilder<T> rateLimit(RateLimit rateLimit) {
+        config.rateLimit = rateLimit;
+        return this;
+    }
+
+    /**
+     * Define how many queued packets of a client can be sent together in a single gathering write.
+     *
+     * Each packet is encrypted and framed individually, then the packets are submitted to the channel in one write operation.
+     * The batch is closed when it reaches the max amount of packets or when its size reaches the max amount of bytes.
+     *
+     * The default is 1 packet, each packet is written by its own operation.
+     *
+     * @param maxPackets the max amount of packets written together
+     * @param maxBytes the max amount of bytes written together. A single packet greater than this is still written.
+     * @return this
+     *
+     * @throws IllegalArgumentException if any value is lower than 1
+     */
+    public ConnectionBuilder<T> writeBatch(int maxPackets, int maxBytes) {
+        if(maxPackets < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("The write batch limits must be greater than 0");
+        }
+        config.writeBatchPackets = maxPackets;
+        config.writeBatchBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * Define the max amount of packets queued to a client in each priority lane. See {@link PacketPriority}.
+     *
+     * When the lane is full, the packets sent to it are dropped. Unlike the drop threshold, this bound applies to all packets,
+     * even those that can't be dropped.
+     *
+     * The queue is not bounded by default.
+     *
+     * @param capacity the max amount of packets queued in each lane
+     * @return this
+     *
+     * @throws IllegalArgumentException if the capacity is lower than 1
+     */
+    public ConnectionBuilder<T> writeQueueCapacity(int capacity) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("The write queue capacity must be greater than 0");
+        }
+        config.writeQueueCapacity = capacity;
+        return this;
+    }
+
+    /**
+     * Define how long a write to a client can wait without progress and the policy applied when it stalls.
+     *
+     * A peer that stops reading keeps the write outstanding, holding its buffers and the packets queued to the client.
+     * With the {@link WriteStallPolicy#DISCONNECT} policy the write is aborted and the client disconnected.
+     * With the {@link WriteStallPolicy#MARK_SLOW} policy the client is notified, see {@link Client#onWriteStalled()}.
+     *
+     * By default, there is no write timeout.
+     *
+     * @param timeout the max time in milliseconds without progress of a write. Zero to disable
+     * @param policy the policy applied when a write stalls
+     * @return this
+     *
+     * @throws IllegalArgumentException if the timeout is negative or the policy is null
+     */
+    public ConnectionBuilder<T> writeTimeout(long timeout, WriteStallPolicy policy) {
+        if(timeout < 0 || isNull(policy)) {
+            throw new IllegalArgumentException("The write timeout must not be negative and the policy must not be null");
+        }
+        config.writeTimeout = timeout;
+        config.writeStallPolicy = policy;
+        return this;
+    }
+
+    /**
+     * Define the max amount of bytes queued to a client and the policy applied when it's exceeded.
+     *
+     * The queued packets are accounted by the size of its cached data or by the segment size, when the packet was not written yet.
+     * The policy bounds the memory held by a slow client, see {@link OutboundBudgetPolicy}.
+     *
+     * By default, there is no budget.
+     *
+     * @param bytes the max amount of bytes queued to a client. Zero to disable
+     * @param policy the policy applied when the budget is exceeded
+     * @return this
+     *
+     * @throws IllegalArgumentException if the amount of bytes is negative or the policy is null
+     */
+    public ConnectionBuilder<T> outboundBudget(long bytes, OutboundBudgetPolicy policy) {
+        if(bytes < 0 || isNull(policy)) {
+            throw new IllegalArgumentException("The outbound budget must not be negative and the policy must not be null");
+        }
+        config.outboundBudget = bytes;
+        config.outboundBudgetPolicy = policy;
+        return this;
+    }
+
+    /**
+     * Define how long a client can stay over the outbound budget before it's disconnected, when the policy is {@link OutboundBudgetPolicy#DISCONNECT}.
+     *
+     * The default is 5 seconds.
+     *
+     * @param gracePeriod the grace period in milliseconds
+     * @return this
+     *
+     * @throws IllegalArgumentException if the grace period is negative
+     */
+    public ConnectionBuilder<T> outboundGracePeriod(long gracePeriod) {
+        if(gracePeriod < 0) {
+            throw new IllegalArgumentException("The grace period must not be negative");
+        }
+        config.outboundGracePeriod = gracePeriod;
+        return this;
+    }
+
+    /**
+     * Define how many packets of higher priority can be sent while a queued packet of lower priority waits. See {@link PacketPriority}.
+     *
+     * When the limit is reached the packet of lower priority is sent before the others.
+     *
+     * The default is 8 packets.
+     *
+     * @param limit the max amount of packets sent ahead of a lower priority packet
+     * @return this
+     *
+     * @throws IllegalArgumentException if the limit is lower than 1
+     */
+    public ConnectionBuilder<T> starvationLimit(int limit) {
+        if(limit < 1) {
+            throw new IllegalArgumentException("The starvation limit must be greater than 0");
+        }
+        config.starvationLimit = limit;
+        return this;
+    }
+
+    /**
+     * Define if the client should be corked while an incoming packet is executed.
+     *
+     * When enabled, the packets sent by the execution of a {@link ReadablePacket} are held and sent together in a single write
+     * when the execution finishes. See {@link Client#cork()}.
+     *
+     * When enabled the {@link PacketExecutor} receives a wrapper of the packets.
+     * This option is disabled by default.
+     *
+     * @param enable true if the client should be flushed after the packet's execution
+     * @return this
+     */
+    public ConnectionBuilder<T> flushAfterExecution(boolean enable) {
+        config.flushAfterExecution = enable;
+        return this;
+    }
+
+    /**
+     * Define the max time that the packets are held by a cork. See {@link Client#cork()}.
+     *
+     * When the deadline elapses the held packets are flushed, even if the client is still corked.
+     *
+     * @param deadline the max time in milliseconds. Zero to hold until the client is flushed
+     * @return this
+     *
+     * @throws IllegalArgumentException if the deadline is negative
+     */
+    public ConnectionBuilder<T> corkDeadline(long deadline) {
+        if(deadline < 0) {
+            throw new IllegalArgumentException("The cork deadline must not be negative");
+        }
+        config.corkDeadline = deadline;
+        return this;
+    }
+
+    /**
+     * Define if the incoming packets should be executed on virtual threads.
+     *
+     * When enabled the packets are executed by a {@link VirtualThreadPacketExecutor} instead of the {@link PacketExecutor}
+     * informed on creation, keeping the order of the packets of each client.
+     *
+     * This option is disabled by default.
+     *
+     * @param enable true if the packets should be executed on virtual threads
+     * @return this
+     *
+     * @throws UnsupportedOperationException if enabled and virtual threads are not supported. Requires Java 21 or later.
+     */
+    public ConnectionBuilder<T> executeOnVirtualThreads(boolean enable) {
+        if(enable && !VirtualThreadPacketExecutor.isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+        }
+        config.virtualThreadExecution = enable;
+        return this;
+    }
+
+    /**
+     * Define if the {@link ReadableBuffer} passed to the {@link PacketHandler} should be reused among the packets of a connection.
+     *
+     * When enabled, no buffer is allocated to parse an incoming packet. However the {@link ReadableBuffer} is only valid until
+     * the {@link ReadablePacket#read()} returns, so it must not be kept by the packet.
+     *
+     * This option is disabled by default.
+     *
+     * @param reuse true if the readable buffer should be reused
+     * @return this
+     */
+    public ConnectionBuilder<T> reuseReadableBuffer(boolean reuse) {
+        config.reuseReadableBuffer = reuse;
+        return this;
+    }
+
+    /**
+     * Define the max payload size of the incoming frames.
+     *
+     * The size is checked as soon as the frame header is decoded, before any buffer is acquired to hold the payload.
+     * The frames greater than the max size are handled according to the policy and counted in {@link ConnectionHandler#oversizedFrameCount()}.
+     * The max size can be overridden by {@link Client#setMaxFrameSize(int)}.
+     *
+     * By default, the frame size is only limited by the {@link FrameCodec}.
+     *
+     * @param size the max payload size of a frame. A value lower or equals to 0 disables the limit
+     * @param policy the policy applied to oversized frames
+     * @return this
+     *
+     * @throws IllegalArgumentException if the policy is null
+     */
+    public ConnectionBuilder<T> maxFrameSize(int size, OversizedFramePolicy policy) {
+        if(isNull(policy)) {
+            throw new IllegalArgumentException("The oversized frame policy must not be null");
+        }
+        config.maxFrameSize = size;
+        config.oversizedFramePolicy = policy;
+        return this;
+    }
+
+    /**
+     * Define the size of the read-ahead buffer.
+     *
+     * When the read-ahead is enabled each socket read fills a pooled buffer of {@code size} bytes. All complete packets
+     * contained in the buffer are processed before the next read is issued, and the incomplete tail is carried over to the next read.
+     * Otherwise, the header and the payload of each packet are read separately.
+     *
+     * The read-ahead is disabled by default.
+     *
+     * @param size the read-ahead buffer size. A value lower or equals to 0 disables the read-ahead
+     * @return this
+     */
+    public ConnectionBuilder<T> readAheadBufferSize(int size) {
+        config.readAheadBufferSize = size;
+        return this;
+    }
+
     /**
      * Builds a new ConnectionHandler based on the options configured.
      *
@@ -245,6 +570,7 @@ public class ConnectionBuilder<T extends Client<Connection<T>>> {
      * @throws IOException - If the Socket Address configured can't be used.
      */
     public ConnectionHandler<T> build() throws IOException {
-        return new ConnectionHandler<>(config.complete(), clientFactory, readerHandler);
+        ReadHandler<T> handler = config.virtualThreadExecution ? readerHandler.withExecutor(new VirtualThreadPacketExecutor<>()) : readerHandler;
+        return new ConnectionHandler<>(config.complete(), clientFactory, handler);
     }
 }
\ No newline at end of file
@@ -19,6 +19,7 @@
 package io.github.joealisson.mmocore;
 
 import io.github.joealisson.mmocore.internal.BufferPool;
+import io.github.joealisson.mmocore.internal.MMOThreadFactory;
 import io.github.joealisson.mmocore.internal.fairness.FairnessController;
 
 import java.io.IOException;
@@ -28,11 +29,18 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static java.lang.Math.max;
 import static java.lang.Runtime.getRuntime;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 /**
@@ -54,12 +62,38 @@ class ConnectionConfig {
     int threadPoolSize;
     boolean useNagle;
     int dropPacketThreshold = 250;
+    int writeBatchPackets = 1;
+    int writeBatchBytes = Integer.MAX_VALUE;
+    int starvationLimit = 8;
+    int writeQueueCapacity = Integer.MAX_VALUE;
+    long outboundBudget;
+    OutboundBudgetPolicy outboundBudgetPolicy = OutboundBudgetPolicy.DROP;
+    long outboundGracePeriod = 5000;
+    long writeTimeout;
+    WriteStallPolicy writeStallPolicy = WriteStallPolicy.DISCONNECT;
+    boolean flushAfterExecution;
+    long corkDeadline;
     boolean useCachedThreadPool;
     int maxCachedThreads = Integer.MAX_VALUE;
     int threadPriority = Thread.NORM_PRIORITY;
     boolean autoReading = true;
     int fairnessBuckets = 1;
+    int readAheadBufferSize;
+    int maxFrameSize;
+    OversizedFramePolicy oversizedFramePolicy = OversizedFramePolicy.DISCONNECT;
+    final LongAdder oversizedFrames = new LongAdder();
+    FrameCodec frameCodec = FrameCodec.shortLE();
+    boolean reuseReadableBuffer;
+    boolean virtualThreadExecution;
+    RateLimit rateLimit;
+    int inboundLowWatermark;
+    int inboundHighWatermark;
+    int overloadLowWatermark;
+    int overloadHighWatermark;
+    OverloadController overloadController;
     FairnessController fairnessController;
+    private ScheduledExecutorService scheduler;
+    private boolean schedulerShutdown;
 
     ConnectionConfig(SocketAddress address) {
         this.address = address;
@@ -106,6 +140,8 @@ class ConnectionConfig {
         dropPacketThreshold = parseInt(properties, "dropPacketThreshold", 200);
         resourcePool.setBufferSegmentSize(parseInt(properties, "bufferSegmentSize", resourcePool.getSegmentSize()));
         fairnessBuckets =  parseInt(properties, "fairnessBuckets", fairnessBuckets);
+        readAheadBufferSize = parseInt(properties, "readAheadBufferSize", readAheadBufferSize);
+        maxFrameSize = parseInt(properties, "maxFrameSize", maxFrameSize);
 
         properties.stringPropertyNames().forEach(property -> {
             Matcher matcher = BUFFER_POOL_PROPERTY.matcher(property);
@@ -148,12 +184,63 @@ class ConnectionConfig {
     }
 
     public ConnectionConfig complete() {
+        newBufferGroup(100, frameCodec.maxHeaderSize());
+        if(readAheadBufferSize > 0) {
+            newBufferGroup(100, readAheadBufferSize);
+        }
         completeBuffersPool();
         resourcePool.initializeBuffers(initBufferPoolFactor);
         fairnessController = FairnessController.init(fairnessBuckets);
+        if(overloadHighWatermark > 0) {
+            overloadController = new OverloadController(overloadLowWatermark, overloadHighWatermark);
+        }
         return this;
     }
 
+    /**
+     * Schedule the task on the scheduler shared by the connections, created on the first use.
+     *
+     * @param task the task to be executed
+     * @param delay the delay before the execution
+     * @param unit the unit of the delay
+     * @return true if the task was scheduled, false if the scheduler was shut down or rejected the task
+     */
+    boolean schedule(Runnable task, long delay, TimeUnit unit) {
+        ScheduledExecutorService executor = scheduler();
+        if(isNull(executor)) {
+            return false;
+        }
+        try {
+            executor.schedule(task, delay, unit);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private synchronized ScheduledExecutorService scheduler() {
+        if(isNull(scheduler) && !schedulerShutdown) {
+            ThreadFactory threadFactory = new MMOThreadFactory("Scheduler", threadPriority);
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = threadFactory.newThread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    /**
+     * Stop the scheduler. No task is scheduled afterwards, so the scheduler is never recreated.
+     */
+    synchronized void shutdownScheduler() {
+        schedulerShutdown = true;
+        if(nonNull(scheduler)) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
     private void completeBuffersPool() {
         int missingPools = MINIMUM_POOL_GROUPS - resourcePool.bufferPoolSize();
 
@@ -98,6 +98,8 @@ public final class ConnectionHandler<T extends Client<Connection<T>>> {
             Thread.currentThread().interrupt();
         } catch (Exception e) {
             LOGGER.warn(e.getMessage(), e);
+        } finally {
+            config.shutdownScheduler();
         }
         LOGGER.debug("ConnectionHandler was shutdown with success status {}", terminated);
     }
@@ -113,6 +115,26 @@ public final class ConnectionHandler<T extends Client<Connection<T>>> {
         return config.resourcePool.stats();
     }
 
+    /**
+     * Return the amount of incoming frames greater than the max frame size
+     *
+     * @see ConnectionBuilder#maxFrameSize(int, OversizedFramePolicy)
+     * @return the oversized frames count
+     */
+    public long oversizedFrameCount() {
+        return config.oversizedFrames.sum();
+    }
+
+    /**
+     * Return the metrics of the overload protection
+     *
+     * @see ConnectionBuilder#overloadProtection(int, int)
+     * @return the overload protection stats
+     */
+    public OverloadStats overloadStats() {
+        return nonNull(config.overloadController) ? config.overloadController.stats() : OverloadStats.DISABLED;
+    }
+
     private class AcceptConnectionHandler implements CompletionHandler<AsynchronousSocketChannel, Void> {
         @Override
         public void completed(AsynchronousSocketChannel clientChannel, Void attachment) {
@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import java.nio.charset.StandardCharsets;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A text whose 16bit chars are encoded once.
+ *
+ * Frequently repeated texts, like names and system messages, can be kept as encoded strings. When written by
+ * {@link WritableBuffer#writeString(CharSequence)} or {@link WritableBuffer#writeSizedString(CharSequence)},
+ * the encoded bytes are copied to the buffer without encoding the text again.
+ *
+ * @author JoeAlisson
+ */
+public final class EncodedString implements CharSequence {
+
+    private final String text;
+    private final byte[] bytes;
+
+    private EncodedString(String text) {
+        this.text = text;
+        this.bytes = text.getBytes(StandardCharsets.UTF_16LE);
+    }
+
+    /**
+     * Encode the text
+     *
+     * @param text the text to be encoded
+     * @return the encoded text
+     * @throws IllegalArgumentException if the text is null
+     */
+    public static EncodedString of(CharSequence text) {
+        if(text instanceof EncodedString) {
+            return (EncodedString) text;
+        }
+        if(isNull(text)) {
+            throw new IllegalArgumentException("The text must not be null");
+        }
+        return new EncodedString(text.toString());
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return text.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return text.subSequence(start, end);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof EncodedString && text.equals(((EncodedString) o).text));
+    }
+
+    @Override
+    public int hashCode() {
+        return text.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.IntFrameCodec;
+import io.github.joealisson.mmocore.internal.ShortFrameCodec;
+import io.github.joealisson.mmocore.internal.VarIntFrameCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class is responsible to frame the packets sent through the network.
+ *
+ * Each frame is composed by a header, holding the size of the packet, followed by the payload.
+ *
+ * @author JoeAlisson
+ */
+public interface FrameCodec {
+
+    /**
+     * Value returned by {@link #decode(ByteBuffer)} when the buffer doesn't contain the whole header.
+     */
+    int INCOMPLETE = -1;
+
+    /**
+     * @return the minimum amount of bytes of a header.
+     */
+    int minHeaderSize();
+
+    /**
+     * @return the maximum amount of bytes of a header. This amount of bytes is reserved before the payload of each packet sent.
+     */
+    int maxHeaderSize();
+
+    /**
+     * @param payloadSize the size of the payload to be framed
+     * @return the amount of bytes needed to encode the header of the payload.
+     */
+    int headerSize(int payloadSize);
+
+    /**
+     * Decodes the header starting at the buffer's position.
+     *
+     * When the header is complete the buffer's position is moved to the beginning of the payload.
+     * Otherwise the buffer's position is not changed.
+     *
+     * @param buffer the buffer holding the header
+     * @return the payload size or {@link #INCOMPLETE} if the buffer doesn't contain the whole header.
+     * @throws IllegalStateException if the header is malformed
+     */
+    int decode(ByteBuffer buffer);
+
+    /**
+     * Encodes the header of the payload.
+     *
+     * @param buffer the buffer where the header is written into.
+     * @param index the index of the first header byte. The payload starts right after the header.
+     * @param payloadSize the size of the payload
+     * @throws IllegalArgumentException if the payload size can't be encoded
+     */
+    void encode(Buffer buffer, int index, int payloadSize);
+
+    /**
+     * Create a codec with a 16 bits little-endian header. The header value is the size of the whole frame, header included.
+     *
+     * This is the default codec. The frame size is limited to 65535 bytes.
+     *
+     * @return a 16 bits header codec
+     */
+    static FrameCodec shortLE() {
+        return ShortFrameCodec.INSTANCE;
+    }
+
+    /**
+     * Create a codec with a 32 bits little-endian header. The header value is the size of the whole frame, header included.
+     *
+     * @return a 32 bits header codec
+     */
+    static FrameCodec intLE() {
+        return IntFrameCodec.INSTANCE;
+    }
+
+    /**
+     * Create a codec with a variable length header. The header value is the size of the payload encoded as an unsigned
+     * varint of 7 bits groups, least significant group first.
+     *
+     * @return a varint header codec
+     */
+    static FrameCodec varInt() {
+        return VarIntFrameCodec.INSTANCE;
+    }
+}
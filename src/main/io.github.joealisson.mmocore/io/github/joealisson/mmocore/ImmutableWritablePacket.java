@@ -0,0 +1,210 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.ArrayPacketBuffer;
+import io.github.joealisson.mmocore.internal.InternalWritableBuffer;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A packet whose data is serialized once, when the packet is created.
+ *
+ * Constant packets, like notices or empty lists, can be sent many times to any client without being written again.
+ * Each send only copies the serialized data into the client's buffer, where it's encrypted and framed. The data is never
+ * changed after the creation, so the packet can be sent concurrently from any thread.
+ *
+ * @author JoeAlisson
+ */
+public final class ImmutableWritablePacket<T extends Client<Connection<T>>> extends WritablePacket<T> {
+
+    private static final int SERIALIZATION_BUFFER_SIZE = 64;
+
+    private final WritablePacket<T> packet;
+    private final byte[] payload;
+
+    private ImmutableWritablePacket(WritablePacket<T> packet, byte[] payload) {
+        this.packet = packet;
+        this.payload = payload;
+    }
+
+    /**
+     * Serialize the packet's data into an immutable packet.
+     *
+     * The packet is written with a null client, so its data must not depend on the client it's sent to, and its
+     * {@link WritablePacket#write(Client, WritableBuffer)} must not use the client. A packet that fails on the null client
+     * is rejected, it can be serialized by {@link #of(WritablePacket, Client)}.
+     * The priority, the coalescing key and the disposability are still taken from the packet.
+     *
+     * @param packet the packet to be serialized
+     * @param <T> the client type
+     * @return the immutable packet
+     * @throws IllegalArgumentException if the packet is null, it's not written or it needs a client to be written
+     */
+    public static <T extends Client<Connection<T>>> ImmutableWritablePacket<T> of(WritablePacket<T> packet) {
+        return of(packet, null);
+    }
+
+    /**
+     * Serialize the packet's data written to the client into an immutable packet.
+     *
+     * The data is written once to the given client and sent as is to any client the immutable packet is sent to.
+     * The client's resource pool holds the data while it's serialized.
+     *
+     * @param packet the packet to be serialized
+     * @param client the client used to write the packet, or null to write it without a client
+     * @param <T> the client type
+     * @return the immutable packet
+     * @throws IllegalArgumentException if the packet is null, it's not written or it needs a client to be written
+     */
+    public static <T extends Client<Connection<T>>> ImmutableWritablePacket<T> of(WritablePacket<T> packet, T client) {
+        if(isNull(packet)) {
+            throw new IllegalArgumentException("The packet must not be null");
+        }
+        if(packet instanceof ImmutableWritablePacket) {
+            return (ImmutableWritablePacket<T>) packet;
+        }
+        int size = Math.max(packet.getSizeHint(), SERIALIZATION_BUFFER_SIZE);
+        ArrayPacketBuffer buffer = isNull(client) ? new ArrayPacketBuffer(size, null) : ArrayPacketBuffer.pooled(size, client.getResourcePool());
+        try {
+            if(!write(packet, client, buffer)) {
+                throw new IllegalArgumentException("The packet " + packet + " was not written");
+            }
+            buffer.mark();
+            byte[] payload = new byte[buffer.limit()];
+            buffer.position(0);
+            buffer.readBytes(payload);
+            return new ImmutableWritablePacket<>(packet, payload);
+        } finally {
+            buffer.recycle();
+        }
+    }
+
+    private static <T extends Client<Connection<T>>> boolean write(WritablePacket<T> packet, T client, ArrayPacketBuffer buffer) {
+        try {
+            return packet.write(client, buffer);
+        } catch (NullPointerException e) {
+            if(isNull(client)) {
+                throw new IllegalArgumentException("The packet " + packet + " needs a client to be written", e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return the size of the serialized data, without the header
+     */
+    public int size() {
+        return payload.length;
+    }
+
+    @Override
+    InternalWritableBuffer writeData(T client) {
+        ResourcePool resourcePool = client.getResourcePool();
+        int headerSize = client.getFrameCodec().maxHeaderSize();
+        InternalWritableBuffer buffer = InternalWritableBuffer.dynamicOf(resourcePool.getPacketBuffer(headerSize + payload.length), resourcePool);
+        buffer.position(headerSize);
+        buffer.writeBytes(payload);
+        buffer.mark();
+        return buffer;
+    }
+
+    /**
+     * The data is already serialized, so there is nothing to share.
+     */
+    @Override
+    boolean writeSharedData(T client) {
+        return true;
+    }
+
+    @Override
+    SharedFrame sharedFrame(T client) {
+        ArrayPacketBuffer data = ArrayPacketBuffer.pooled(client.getFrameCodec().maxHeaderSize() + payload.length, client.getResourcePool());
+        try {
+            data.position(client.getFrameCodec().maxHeaderSize());
+            data.writeBytes(payload);
+            data.mark();
+            return SharedFrame.of(data, client.getFrameCodec(), client.getResourcePool());
+        } finally {
+            data.recycle();
+        }
+    }
+
+    /**
+     * The packet holds no cache to be released, so its recipients aren't counted.
+     */
+    @Override
+    void retainRecipient() {
+        // nothing to retain
+    }
+
+    @Override
+    void releaseRecipient() {
+        // nothing to release
+    }
+
+    @Override
+    int estimateSize(ResourcePool resourcePool) {
+        return Math.max(1, payload.length);
+    }
+
+    /**
+     * The data is copied by each client, so the packet doesn't need a broadcast cache.
+     */
+    @Override
+    public void openBroadcast() {
+        // the serialized data is already shared
+    }
+
+    @Override
+    public void closeBroadcast() {
+        // there is no broadcast cache to release
+    }
+
+    @Override
+    public int getSizeHint() {
+        return payload.length;
+    }
+
+    @Override
+    public PacketPriority getPriority() {
+        return packet.getPriority();
+    }
+
+    @Override
+    public long getCoalescingKey() {
+        return packet.getCoalescingKey();
+    }
+
+    @Override
+    public boolean canBeDropped(T client) {
+        return packet.canBeDropped(client);
+    }
+
+    @Override
+    protected boolean write(T client, WritableBuffer buffer) {
+        buffer.writeBytes(payload);
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return packet.toString();
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link PacketHandler} that dispatches the incoming data by its opcode.
+ *
+ * The first byte of the payload is the opcode of the packet. Extended opcodes are followed by a 16 bits sub-opcode.
+ * The packet factories are kept in arrays indexed by the opcodes, so the dispatch doesn't depends on the amount of registered packets.
+ *
+ * Each registration can be restricted to a set of client states. The state of the client is given by the state function
+ * and must be a number between 0 and 31. The allowed states are a bitmask built by {@link #states(int...)}.
+ * A packet restricted to some states is rejected when the client state is out of the range.
+ *
+ * All registrations must be done before the handler is used by a {@link ConnectionHandler}.
+ *
+ * @author JoeAlisson
+ */
+public final class OpcodePacketHandler<T extends Client<Connection<T>>> implements PacketHandler<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OpcodePacketHandler.class);
+    private static final int OPCODES = 256;
+    private static final int MAX_SUB_OPCODE = 0xFFFF;
+    private static final int MAX_STATE = 31;
+
+    /**
+     * The mask that allows a packet in any client state.
+     */
+    public static final int ANY_STATE = -1;
+
+    private final ToIntFunction<T> stateFunction;
+    private final Supplier<? extends ReadablePacket<T>>[] factories;
+    private final int[] stateMasks = new int[OPCODES];
+    private final Supplier<? extends ReadablePacket<T>>[][] extendedFactories;
+    private final int[][] extendedStateMasks = new int[OPCODES][];
+    private final LongAdder[] unknownOpcodes = new LongAdder[OPCODES];
+    private final LongAdder unknownExtendedOpcodes = new LongAdder();
+    private final LongAdder rejectedPackets = new LongAdder();
+
+    /**
+     * Create a OpcodePacketHandler without client state filtering.
+     */
+    public OpcodePacketHandler() {
+        this(null);
+    }
+
+    /**
+     * Create a OpcodePacketHandler
+     *
+     * @param stateFunction the function that gives the actual state of the client. A value between 0 and 31.
+     *                      If null the client state is not checked.
+     */
+    @SuppressWarnings("unchecked")
+    public OpcodePacketHandler(ToIntFunction<T> stateFunction) {
+        this.stateFunction = stateFunction;
+        this.factories = newFactories(OPCODES);
+        this.extendedFactories = (Supplier<? extends ReadablePacket<T>>[][]) new Supplier<?>[OPCODES][];
+        for (int i = 0; i < OPCODES; i++) {
+            unknownOpcodes[i] = new LongAdder();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <P> Supplier<? extends P>[] newFactories(int size) {
+        return (Supplier<? extends P>[]) new Supplier<?>[size];
+    }
+
+    /**
+     * Register a packet accepted in any client state.
+     *
+     * @param opcode the opcode of the packet
+     * @param factory the factory of the packet
+     * @return this
+     */
+    public OpcodePacketHandler<T> register(int opcode, Supplier<? extends ReadablePacket<T>> factory) {
+        return register(opcode, factory, ANY_STATE);
+    }
+
+    /**
+     * Register a packet.
+     *
+     * @param opcode the opcode of the packet
+     * @param factory the factory of the packet
+     * @param stateMask the client states where the packet is accepted
+     * @return this
+     *
+     * @throws IllegalArgumentException if the opcode is invalid, already registered or extended, or the state mask allows no state.
+     */
+    public OpcodePacketHandler<T> register(int opcode, Supplier<? extends ReadablePacket<T>> factory, int stateMask) {
+        checkOpcode(opcode);
+        checkFactory(factory);
+        checkStateMask(stateMask);
+        if(nonNullEntry(opcode)) {
+            throw new IllegalArgumentException("The opcode " + opcode + " is already registered");
+        }
+        factories[opcode] = factory;
+        stateMasks[opcode] = stateMask;
+        return this;
+    }
+
+    /**
+     * Register a packet with extended opcode accepted in any client state.
+     *
+     * @param opcode the opcode of the packet
+     * @param subOpcode the 16 bits sub-opcode of the packet
+     * @param factory the factory of the packet
+     * @return this
+     */
+    public OpcodePacketHandler<T> registerExtended(int opcode, int subOpcode, Supplier<? extends ReadablePacket<T>> factory) {
+        return registerExtended(opcode, subOpcode, factory, ANY_STATE);
+    }
+
+    /**
+     * Register a packet with extended opcode.
+     *
+     * @param opcode the opcode of the packet
+     * @param subOpcode the 16 bits sub-opcode of the packet
+     * @param factory the factory of the packet
+     * @param stateMask the client states where the packet is accepted
+     * @return this
+     *
+     * @throws IllegalArgumentException if the opcodes are invalid or already registered, or the state mask allows no state.
+     */
+    public OpcodePacketHandler<T> registerExtended(int opcode, int subOpcode, Supplier<? extends ReadablePacket<T>> factory, int stateMask) {
+        checkOpcode(opcode);
+        checkFactory(factory);
+        checkStateMask(stateMask);
+        if(subOpcode < 0 || subOpcode > MAX_SUB_OPCODE) {
+            throw new IllegalArgumentException("Invalid sub-opcode " + subOpcode);
+        }
+        if(nonNull(factories[opcode])) {
+            throw new IllegalArgumentException("The opcode " + opcode + " is already registered");
+        }
+
+        Supplier<? extends ReadablePacket<T>>[] subFactories = extendedFactories[opcode];
+        if(isNull(subFactories)) {
+            subFactories = newFactories(subOpcode + 1);
+            extendedStateMasks[opcode] = new int[subOpcode + 1];
+        } else if(subOpcode >= subFactories.length) {
+            subFactories = Arrays.copyOf(subFactories, subOpcode + 1);
+            extendedStateMasks[opcode] = Arrays.copyOf(extendedStateMasks[opcode], subOpcode + 1);
+        } else if(nonNull(subFactories[subOpcode])) {
+            throw new IllegalArgumentException("The sub-opcode " + subOpcode + " of opcode " + opcode + " is already registered");
+        }
+        subFactories[subOpcode] = factory;
+        extendedStateMasks[opcode][subOpcode] = stateMask;
+        extendedFactories[opcode] = subFactories;
+        return this;
+    }
+
+    private boolean nonNullEntry(int opcode) {
+        return nonNull(factories[opcode]) || nonNull(extendedFactories[opcode]);
+    }
+
+    private void checkOpcode(int opcode) {
+        if(opcode < 0 || opcode >= OPCODES) {
+            throw new IllegalArgumentException("Invalid opcode " + opcode);
+        }
+    }
+
+    private void checkStateMask(int stateMask) {
+        if(stateMask == 0) {
+            throw new IllegalArgumentException("The state mask must allow at least one client state");
+        }
+    }
+
+    private void checkFactory(Supplier<?> factory) {
+        if(isNull(factory)) {
+            throw new IllegalArgumentException("The packet factory must not be null");
+        }
+    }
+
+    @Override
+    public ReadablePacket<T> handlePacket(ReadableBuffer buffer, T client) {
+        if(buffer.remaining() < 1) {
+            return null;
+        }
+        int opcode = Byte.toUnsignedInt(buffer.readByte());
+        Supplier<? extends ReadablePacket<T>> factory = factories[opcode];
+        if(nonNull(factory)) {
+            return createPacket(factory, stateMasks[opcode], client);
+        }
+
+        Supplier<? extends ReadablePacket<T>>[] subFactories = extendedFactories[opcode];
+        if(isNull(subFactories)) {
+            unknownOpcodes[opcode].increment();
+            LOGGER.debug("Unknown opcode {} received from {}", opcode, client);
+            return null;
+        }
+        return handleExtendedPacket(buffer, client, opcode, subFactories);
+    }
+
+    private ReadablePacket<T> handleExtendedPacket(ReadableBuffer buffer, T client, int opcode, Supplier<? extends ReadablePacket<T>>[] subFactories) {
+        if(buffer.remaining() < 2) {
+            unknownExtendedOpcodes.increment();
+            return null;
+        }
+        int subOpcode = Short.toUnsignedInt(buffer.readShort());
+        if(subOpcode >= subFactories.length || isNull(subFactories[subOpcode])) {
+            unknownExtendedOpcodes.increment();
+            LOGGER.debug("Unknown sub-opcode {} of opcode {} received from {}", subOpcode, opcode, client);
+            return null;
+        }
+        return createPacket(subFactories[subOpcode], extendedStateMasks[opcode][subOpcode], client);
+    }
+
+    private ReadablePacket<T> createPacket(Supplier<? extends ReadablePacket<T>> factory, int stateMask, T client) {
+        if(stateMask != ANY_STATE && nonNull(stateFunction) && !isAllowed(stateMask, stateFunction.applyAsInt(client), client)) {
+            rejectedPackets.increment();
+            return null;
+        }
+        return factory.get();
+    }
+
+    private boolean isAllowed(int stateMask, int state, T client) {
+        if(state < 0 || state > MAX_STATE) {
+            // a shift out of the range would alias another state
+            LOGGER.warn("Invalid state {} of client {}, the state must be between 0 and {}", state, client, MAX_STATE);
+            return false;
+        }
+        return (stateMask & (1 << state)) != 0;
+    }
+
+    /**
+     * Build a state mask
+     *
+     * @param states the client states. Values between 0 and 31.
+     * @return the mask allowing the states
+     */
+    public static int states(int... states) {
+        int mask = 0;
+        for (int state : states) {
+            if(state < 0 || state > MAX_STATE) {
+                throw new IllegalArgumentException("Invalid client state " + state);
+            }
+            mask |= 1 << state;
+        }
+        return mask;
+    }
+
+    /**
+     * @param opcode the opcode
+     * @return the amount of packets received with the unregistered opcode
+     */
+    public long unknownOpcodeCount(int opcode) {
+        checkOpcode(opcode);
+        return unknownOpcodes[opcode].sum();
+    }
+
+    /**
+     * @return the amount of packets received with unregistered opcodes, including the unregistered sub-opcodes
+     */
+    public long unknownOpcodeCount() {
+        long count = unknownExtendedOpcodes.sum();
+        for (int i = 0; i < OPCODES; i++) {
+            count += unknownOpcodes[i].sum();
+        }
+        return count;
+    }
+
+    /**
+     * @return the amount of packets received with unregistered sub-opcodes
+     */
+    public long unknownExtendedOpcodeCount() {
+        return unknownExtendedOpcodes.sum();
+    }
+
+    /**
+     * @return the amount of packets rejected because they are not allowed in the client state
+     */
+    public long rejectedPacketCount() {
+        return rejectedPackets.sum();
+    }
+}
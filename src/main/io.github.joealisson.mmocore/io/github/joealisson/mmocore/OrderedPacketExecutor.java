@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import java.util.concurrent.Executor;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A {@link PacketExecutor} that keeps the order of the packets of each client.
+ *
+ * The packets are executed on a shared pool of workers. Each client has a mailbox that is scheduled on the workers while
+ * it has packets, so the packets of a client are never executed concurrently. Each scheduling executes up to batch size
+ * packets before giving the worker to other clients.
+ *
+ * @author JoeAlisson
+ */
+public final class OrderedPacketExecutor<T extends Client<Connection<T>>> implements PacketExecutor<T> {
+
+    private static final int DEFAULT_BATCH_SIZE = 16;
+
+    private final Executor workers;
+    private final int batchSize;
+
+    /**
+     * Create a OrderedPacketExecutor with the default batch size.
+     *
+     * @param workers the executor where the packets are executed
+     */
+    public OrderedPacketExecutor(Executor workers) {
+        this(workers, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Create a OrderedPacketExecutor
+     *
+     * @param workers the executor where the packets are executed
+     * @param batchSize the max amount of packets of a client executed per scheduling
+     *
+     * @throws IllegalArgumentException if the workers is null or the batch size is less than 1
+     */
+    public OrderedPacketExecutor(Executor workers, int batchSize) {
+        if(isNull(workers)) {
+            throw new IllegalArgumentException("The workers must not be null");
+        }
+        if(batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be greater than 0");
+        }
+        this.workers = workers;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void execute(ReadablePacket<T> packet) {
+        packet.client.getMailbox().submit(packet, workers, batchSize);
+    }
+}
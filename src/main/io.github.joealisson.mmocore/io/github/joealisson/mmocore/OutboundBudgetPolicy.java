@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+/**
+ * The policy applied when the bytes queued to a client exceed the outbound budget.
+ *
+ * @author JoeAlisson
+ */
+public enum OutboundBudgetPolicy {
+    /**
+     * The droppable packets are dropped, starting by the lower priority ones. See {@link WritablePacket#canBeDropped(Client)}.
+     */
+    DROP,
+    /**
+     * The client is notified to pause the producers of packets. See {@link Client#onOutboundCongested()}.
+     */
+    PAUSE,
+    /**
+     * The client is disconnected if it stays over the budget for the grace period.
+     */
+    DISCONNECT
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Controls the packets in execution of all clients.
+ *
+ * When the total of packets in execution reaches the high watermark, the clients with more packets in execution than the
+ * average stop reading. The reading of these clients is resumed when the total drops to the low watermark.
+ *
+ * @author JoeAlisson
+ */
+final class OverloadController {
+
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final AtomicInteger inFlightPackets = new AtomicInteger();
+    private final AtomicInteger busyClients = new AtomicInteger();
+    private final Queue<Client<?>> shedClients = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean overloaded = new AtomicBoolean(false);
+    private final LongAdder shedReads = new LongAdder();
+    private final AtomicLong overloadEpisodes = new AtomicLong();
+    private final AtomicLong overloadTime = new AtomicLong();
+    private volatile long overloadStart;
+
+    OverloadController(int lowWatermark, int highWatermark) {
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+    }
+
+    void packetSubmitted(int clientInFlightPackets) {
+        inFlightPackets.incrementAndGet();
+        if(clientInFlightPackets == 1) {
+            busyClients.incrementAndGet();
+        }
+    }
+
+    void packetExecuted(int clientInFlightPackets) {
+        if(clientInFlightPackets == 0) {
+            busyClients.decrementAndGet();
+        }
+        if(inFlightPackets.decrementAndGet() <= lowWatermark && !shedClients.isEmpty()) {
+            resumeClients();
+        }
+    }
+
+    boolean shouldShed(int clientInFlightPackets) {
+        int total = inFlightPackets.get();
+        if(total < highWatermark || clientInFlightPackets == 0) {
+            return false;
+        }
+        long busy = Math.max(1, busyClients.get());
+        return clientInFlightPackets * busy >= total;
+    }
+
+    void shed(Client<?> client) {
+        if(overloaded.compareAndSet(false, true)) {
+            overloadStart = System.nanoTime();
+            overloadEpisodes.incrementAndGet();
+        }
+        shedReads.increment();
+        shedClients.add(client);
+        // the packets may be executed before the client is added
+        if(inFlightPackets.get() <= lowWatermark) {
+            resumeClients();
+        }
+    }
+
+    private void resumeClients() {
+        Client<?> client;
+        while (nonNull(client = shedClients.poll())) {
+            client.resumeShedReading();
+        }
+        if(overloaded.compareAndSet(true, false)) {
+            overloadTime.addAndGet(System.nanoTime() - overloadStart);
+        }
+    }
+
+    OverloadStats stats() {
+        long time = overloadTime.get();
+        boolean isOverloaded = overloaded.get();
+        if(isOverloaded) {
+            time += System.nanoTime() - overloadStart;
+        }
+        return new OverloadStats(inFlightPackets.get(), isOverloaded, overloadEpisodes.get(), shedReads.sum(), TimeUnit.NANOSECONDS.toMillis(time));
+    }
+}
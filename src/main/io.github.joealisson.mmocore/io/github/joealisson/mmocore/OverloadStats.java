@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+/**
+ * A snapshot of the overload protection metrics.
+ *
+ * @author JoeAlisson
+ */
+public final class OverloadStats {
+
+    static final OverloadStats DISABLED = new OverloadStats(0, false, 0, 0, 0);
+
+    private final int inFlightPackets;
+    private final boolean overloaded;
+    private final long overloadCount;
+    private final long shedReads;
+    private final long overloadTime;
+
+    OverloadStats(int inFlightPackets, boolean overloaded, long overloadCount, long shedReads, long overloadTime) {
+        this.inFlightPackets = inFlightPackets;
+        this.overloaded = overloaded;
+        this.overloadCount = overloadCount;
+        this.shedReads = shedReads;
+        this.overloadTime = overloadTime;
+    }
+
+    /**
+     * @return the amount of packets of all clients that have not finished its execution
+     */
+    public int getInFlightPackets() {
+        return inFlightPackets;
+    }
+
+    /**
+     * @return if the reading of clients is being shed
+     */
+    public boolean isOverloaded() {
+        return overloaded;
+    }
+
+    /**
+     * @return how many times the overload protection started to shed the reading of clients
+     */
+    public long getOverloadCount() {
+        return overloadCount;
+    }
+
+    /**
+     * @return how many times the reading of a client was shed
+     */
+    public long getShedReads() {
+        return shedReads;
+    }
+
+    /**
+     * @return the total time in milliseconds spent shedding the reading of clients
+     */
+    public long getOverloadTime() {
+        return overloadTime;
+    }
+
+    @Override
+    public String toString() {
+        return "OverloadStats{inFlightPackets=" + inFlightPackets + ", overloaded=" + overloaded + ", overloadCount=" + overloadCount +
+                ", shedReads=" + shedReads + ", overloadTime=" + overloadTime + "ms}";
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+/**
+ * The policy applied when a client sends a frame greater than the max frame size.
+ *
+ * @author JoeAlisson
+ */
+public enum OversizedFramePolicy {
+    /**
+     * The client is disconnected.
+     */
+    DISCONNECT,
+    /**
+     * The payload of the frame is read in small chunks and discarded.
+     */
+    SKIP
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.LongObjectMap;
+import io.github.joealisson.mmocore.internal.MpscArrayQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * The outbound packets of a client, queued in one lane per {@link PacketPriority}.
+ *
+ * The lanes are drained from the highest priority to the lowest. To avoid starvation, a lane that was passed over by the
+ * higher lanes for a number of packets is served once before them.
+ *
+ * A packet with a coalescing key (see {@link WritablePacket#getCoalescingKey()}) is queued as the entry of its key, and the
+ * latest packet of each key is kept in a map. While the entry is queued, a new packet with the same key and priority replaces
+ * the previous one in place, only the map is updated. A new packet with another priority is queued in its own lane, the entry
+ * in the previous lane becomes stale and is skipped when polled. So the coalescing key and the priority of a packet must not
+ * change while it's queued.
+ *
+ * The packets can be added concurrently, but must be polled by a single thread at a time.
+ *
+ * @author JoeAlisson
+ */
+final class PacketLanes<P extends WritablePacket<?>> {
+
+    private static final PacketPriority[] PRIORITIES = PacketPriority.values();
+    private static final int CHUNK_SIZE = 128;
+
+    private final List<MpscArrayQueue<P>> lanes;
+    private final int[] passedOver;
+    private final int starvationLimit;
+    private final LongObjectMap<P> keyedPackets = new LongObjectMap<>(16);
+
+    /**
+     * Create the Packet Lanes
+     *
+     * @param starvationLimit the amount of packets of higher lanes sent while a lower lane waits
+     * @param capacity the max amount of packets in each lane
+     */
+    PacketLanes(int starvationLimit, int capacity) {
+        this.starvationLimit = starvationLimit;
+        lanes = new ArrayList<>(PRIORITIES.length);
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            lanes.add(new MpscArrayQueue<>(CHUNK_SIZE, capacity));
+        }
+        passedOver = new int[PRIORITIES.length];
+    }
+
+    /**
+     * Add the packet at the tail of its lane, or replace the queued packet with the same coalescing key.
+     *
+     * @param packet the packet to be added
+     * @return the replaced packet, the packet itself if its lane is full or null if the packet was added to the lane
+     */
+    P add(P packet) {
+        long key = packet.getCoalescingKey();
+        int lane = laneOf(packet);
+        if(key == WritablePacket.NO_COALESCING_KEY) {
+            return lanes.get(lane).offer(packet) ? null : packet;
+        }
+        synchronized (keyedPackets) {
+            P queued = keyedPackets.get(key);
+            if(nonNull(queued) && laneOf(queued) == lane) {
+                keyedPackets.put(key, packet);
+                return queued;
+            }
+            // the entry is queued with the mapping, so a mapped packet always has an entry in its lane
+            if(!lanes.get(lane).offer(packet)) {
+                return packet;
+            }
+            keyedPackets.put(key, packet);
+            return queued;
+        }
+    }
+
+    /**
+     * Replace the queued packet with the same coalescing key and priority.
+     *
+     * @param packet the packet to replace the queued one
+     * @return the replaced packet or null if there is no queued packet with the same key and priority
+     */
+    P replace(P packet) {
+        long key = packet.getCoalescingKey();
+        if(key == WritablePacket.NO_COALESCING_KEY) {
+            return null;
+        }
+        int lane = laneOf(packet);
+        synchronized (keyedPackets) {
+            P queued = keyedPackets.get(key);
+            if(isNull(queued) || laneOf(queued) != lane) {
+                return null;
+            }
+            keyedPackets.put(key, packet);
+            return queued;
+        }
+    }
+
+    P poll() {
+        P packet = pollStarved();
+        if(nonNull(packet)) {
+            return packet;
+        }
+        for (int lane = 0; lane < lanes.size(); lane++) {
+            packet = pollLane(lane);
+            if(nonNull(packet)) {
+                passedOver[lane] = 0;
+                for (int lower = lane + 1; lower < lanes.size(); lower++) {
+                    if(!lanes.get(lower).isEmpty()) {
+                        passedOver[lower]++;
+                    }
+                }
+                return packet;
+            }
+        }
+        return null;
+    }
+
+    private P pollStarved() {
+        for (int lane = 1; lane < lanes.size(); lane++) {
+            if(passedOver[lane] >= starvationLimit) {
+                passedOver[lane] = 0;
+                P packet = pollLane(lane);
+                if(nonNull(packet)) {
+                    return packet;
+                }
+            }
+        }
+        return null;
+    }
+
+    private P pollLane(int lane) {
+        P packet;
+        while (nonNull(packet = lanes.get(lane).poll())) {
+            long key = packet.getCoalescingKey();
+            if(key == WritablePacket.NO_COALESCING_KEY) {
+                return packet;
+            }
+            P queued = take(key, lane);
+            if(nonNull(queued)) {
+                return queued;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Take the packet mapped to the key of an entry polled from the lane.
+     *
+     * @return the mapped packet or null if the entry is stale
+     */
+    private P take(long key, int lane) {
+        synchronized (keyedPackets) {
+            P queued = keyedPackets.get(key);
+            if(isNull(queued) || laneOf(queued) != lane) {
+                return null;
+            }
+            keyedPackets.remove(key);
+            return queued;
+        }
+    }
+
+    /**
+     * Remove the first packet accepted by the filter from the lanes with lower priority than the packet, starting by the lowest lane.
+     *
+     * The lanes are scanned without holding the map of the keyed packets.
+     *
+     * @param packet the packet whose priority bounds the lanes
+     * @param filter the filter of the packets that can be removed
+     * @return the removed packet or null if there is no packet to be removed
+     */
+    P evictBelow(P packet, Predicate<P> filter) {
+        for (int lane = lanes.size() - 1; lane > laneOf(packet); lane--) {
+            int current = lane;
+            P removed;
+            while (nonNull(removed = lanes.get(lane).removeFirstMatching(queued -> {
+                P candidate = resolve(queued, current);
+                return nonNull(candidate) && filter.test(candidate) ? candidate : null;
+            }))) {
+                long key = removed.getCoalescingKey();
+                if(key == WritablePacket.NO_COALESCING_KEY) {
+                    return removed;
+                }
+                P evicted = evictKeyed(key, lane, removed);
+                if(nonNull(evicted)) {
+                    return evicted;
+                }
+            }
+        }
+        return null;
+    }
+
+    private P resolve(P queued, int lane) {
+        long key = queued.getCoalescingKey();
+        if(key == WritablePacket.NO_COALESCING_KEY) {
+            return queued;
+        }
+        synchronized (keyedPackets) {
+            P mapped = keyedPackets.get(key);
+            return nonNull(mapped) && laneOf(mapped) == lane ? mapped : null;
+        }
+    }
+
+    /**
+     * Evict the tested packet whose entry was removed from the lane.
+     *
+     * @return the evicted packet or null if the mapping has changed since the packet was tested
+     */
+    private P evictKeyed(long key, int lane, P tested) {
+        synchronized (keyedPackets) {
+            P mapped = keyedPackets.get(key);
+            if(mapped == tested) {
+                keyedPackets.remove(key);
+                return tested;
+            }
+            // the packet was replaced meanwhile, its entry is queued again so it's not lost
+            if(nonNull(mapped) && laneOf(mapped) == lane && !lanes.get(lane).offer(mapped)) {
+                keyedPackets.remove(key);
+                return mapped;
+            }
+            return null;
+        }
+    }
+
+    boolean isEmpty() {
+        for (MpscArrayQueue<P> lane : lanes) {
+            if(!lane.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if a queued packet is available to {@link #poll()}, a packet whose addition is still in progress is not available.
+     *
+     * @return true if the head of any lane is available
+     */
+    boolean hasAvailable() {
+        for (MpscArrayQueue<P> lane : lanes) {
+            if(lane.hasAvailable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the amount of packets queued in all lanes, including the stale entries not polled yet
+     */
+    int size() {
+        int size = 0;
+        for (MpscArrayQueue<P> lane : lanes) {
+            size += lane.size();
+        }
+        return size;
+    }
+
+    private int laneOf(P packet) {
+        PacketPriority priority = packet.getPriority();
+        return isNull(priority) ? PacketPriority.NORMAL.ordinal() : priority.ordinal();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * The packets of a client waiting to be executed by the {@link OrderedPacketExecutor}.
+ *
+ * The mailbox is scheduled on the workers at most once at a time, so the packets of a client are executed sequentially.
+ *
+ * @author JoeAlisson
+ */
+final class PacketMailbox implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PacketMailbox.class);
+
+    private final Queue<ReadablePacket<?>> packets = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private volatile Executor workers;
+    private volatile int batchSize;
+
+    void submit(ReadablePacket<?> packet, Executor workers, int batchSize) {
+        packets.offer(packet);
+        if(scheduled.compareAndSet(false, true)) {
+            this.workers = workers;
+            this.batchSize = batchSize;
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        try {
+            workers.execute(this);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("The packets execution was rejected, discarding {} packets", packets.size(), e);
+            discardPackets();
+            unschedule();
+        }
+    }
+
+    private void discardPackets() {
+        ReadablePacket<?> packet;
+        while (nonNull(packet = packets.poll())) {
+            try {
+                packet.discard();
+            } catch (Exception e) {
+                LOGGER.error("Error while discarding packet {}", packet, e);
+            }
+        }
+    }
+
+    private void unschedule() {
+        scheduled.set(false);
+        // a packet may have been added before the flag was cleared
+        if(!packets.isEmpty() && scheduled.compareAndSet(false, true)) {
+            schedule();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            int executed = 0;
+            ReadablePacket<?> packet;
+            while (executed < batchSize && nonNull(packet = packets.poll())) {
+                try {
+                    packet.run();
+                } catch (Exception e) {
+                    LOGGER.error("Error while executing packet {}", packet, e);
+                }
+                executed++;
+            }
+        } finally {
+            // the mailbox must not stay scheduled even if an error escapes from a packet
+            if(packets.isEmpty()) {
+                unschedule();
+            } else {
+                schedule();
+            }
+        }
+    }
+
+    int size() {
+        return packets.size();
+    }
+}
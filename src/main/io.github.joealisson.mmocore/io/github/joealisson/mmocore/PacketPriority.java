@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+/**
+ * The priority of a {@link WritablePacket}. The queued packets of a client with a higher priority are sent first.
+ *
+ * @author JoeAlisson
+ */
+public enum PacketPriority {
+    /**
+     * Packets that must be delivered as soon as possible, e.g. the result of an action.
+     */
+    HIGH,
+    /**
+     * The default priority of the packets.
+     */
+    NORMAL,
+    /**
+     * Packets of low value, e.g. chat or cosmetic updates. These packets are the first to be dropped when the client is congested.
+     */
+    LOW
+}
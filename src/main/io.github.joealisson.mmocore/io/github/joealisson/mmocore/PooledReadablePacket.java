@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import static java.util.Objects.isNull;
+
+/**
+ * This class represents a Packet received from the client that is reused after its execution.
+ *
+ * A pooled packet must be obtained from a {@link ReadablePacketPool} by the {@link PacketHandler}.
+ * The packet is returned to the pool automatically when its execution finishes or when it's discarded, so it must not be
+ * referenced after {@link #execute()}.
+ *
+ * @author JoeAlisson
+ */
+public abstract class PooledReadablePacket<T extends Client<Connection<T>>> extends ReadablePacket<T> {
+
+    private ReadablePacketPool<?> pool;
+    private boolean tracked;
+    private boolean corked;
+
+    protected PooledReadablePacket() {
+        // no direct instances
+    }
+
+    void attach(ReadablePacketPool<?> pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * The pooled packet tracks and corks its own execution, so it's never wrapped.
+     */
+    @Override
+    ReadablePacket<T> task(boolean tracked, boolean corked) {
+        this.tracked = tracked;
+        this.corked = corked;
+        return this;
+    }
+
+    @Override
+    void discard() {
+        if(tracked) {
+            tracked = false;
+            client.packetExecuted();
+        }
+        release();
+    }
+
+    @Override
+    public final void run() {
+        T owner = client;
+        boolean cork = corked;
+        if(cork) {
+            owner.cork();
+        }
+        try {
+            execute();
+        } finally {
+            try {
+                if(tracked) {
+                    tracked = false;
+                    owner.packetExecuted();
+                }
+            } finally {
+                if(cork) {
+                    owner.flush();
+                }
+                release();
+            }
+        }
+    }
+
+    @Override
+    void release() {
+        ReadablePacketPool<?> owner = pool;
+        if(isNull(owner)) {
+            return;
+        }
+        pool = null;
+        tracked = false;
+        corked = false;
+        reset();
+        init(null, null);
+        owner.recycle(this);
+    }
+
+    /**
+     * Executes the packet. This method is called by {@link #run()}.
+     */
+    protected abstract void execute();
+
+    /**
+     * Clear the packet's state before it is returned to the pool.
+     */
+    protected void reset() {
+        // nothing to reset by default
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+/**
+ * The limit of incoming data accepted from a client.
+ *
+ * The limit is checked after the packet framing, before the data is decrypted. The packets exceeding the limit are handled
+ * according to the {@link Action} of the limit.
+ *
+ * A rate less than or equal to zero disables the limit of that unit.
+ *
+ * @author JoeAlisson
+ */
+public final class RateLimit {
+
+    /**
+     * The action taken when a client exceeds the rate limit.
+     */
+    public enum Action {
+        /**
+         * The packet is discarded.
+         */
+        DROP,
+        /**
+         * The reading of the client is paused and the packet is handled after the pause time.
+         */
+        PAUSE,
+        /**
+         * The client is disconnected.
+         */
+        DISCONNECT
+    }
+
+    private final int packetsPerSecond;
+    private final int bytesPerSecond;
+    private final Action action;
+    private final long pauseTime;
+
+    private RateLimit(int packetsPerSecond, int bytesPerSecond, Action action, long pauseTime) {
+        this.packetsPerSecond = packetsPerSecond;
+        this.bytesPerSecond = bytesPerSecond;
+        this.action = action;
+        this.pauseTime = pauseTime;
+    }
+
+    /**
+     * Create a rate limit that drops the packets exceeding the limit.
+     *
+     * @param packetsPerSecond the max amount of packets received per second
+     * @param bytesPerSecond the max amount of payload bytes received per second
+     * @return the rate limit
+     */
+    public static RateLimit drop(int packetsPerSecond, int bytesPerSecond) {
+        return new RateLimit(packetsPerSecond, bytesPerSecond, Action.DROP, 0);
+    }
+
+    /**
+     * Create a rate limit that pauses the reading of the client when the limit is exceeded.
+     *
+     * @param packetsPerSecond the max amount of packets received per second
+     * @param bytesPerSecond the max amount of payload bytes received per second
+     * @param pauseTime the time in milliseconds the reading is paused
+     * @return the rate limit
+     *
+     * @throws IllegalArgumentException if the pause time is not positive
+     */
+    public static RateLimit pause(int packetsPerSecond, int bytesPerSecond, long pauseTime) {
+        if(pauseTime <= 0) {
+            throw new IllegalArgumentException("The pause time must be positive");
+        }
+        return new RateLimit(packetsPerSecond, bytesPerSecond, Action.PAUSE, pauseTime);
+    }
+
+    /**
+     * Create a rate limit that disconnects the client when the limit is exceeded.
+     *
+     * @param packetsPerSecond the max amount of packets received per second
+     * @param bytesPerSecond the max amount of payload bytes received per second
+     * @return the rate limit
+     */
+    public static RateLimit disconnect(int packetsPerSecond, int bytesPerSecond) {
+        return new RateLimit(packetsPerSecond, bytesPerSecond, Action.DISCONNECT, 0);
+    }
+
+    /**
+     * @return the max amount of packets received per second
+     */
+    public int packetsPerSecond() {
+        return packetsPerSecond;
+    }
+
+    /**
+     * @return the max amount of payload bytes received per second
+     */
+    public int bytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * @return the action taken when the limit is exceeded
+     */
+    public Action action() {
+        return action;
+    }
+
+    /**
+     * @return the time in milliseconds the reading is paused
+     */
+    public long pauseTime() {
+        return pauseTime;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimit{" + packetsPerSecond + " packets/s, " + bytesPerSecond + " bytes/s, " + action + '}';
+    }
+}
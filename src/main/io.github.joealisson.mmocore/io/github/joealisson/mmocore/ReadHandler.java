@@ -23,8 +23,9 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.nio.channels.CompletionHandler;
+import java.util.concurrent.TimeUnit;
 
-import static io.github.joealisson.mmocore.ConnectionConfig.HEADER_SIZE;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 /**
@@ -33,15 +34,28 @@ import static java.util.Objects.nonNull;
 class ReadHandler<T extends Client<Connection<T>>> implements CompletionHandler<Integer, T> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ReadHandler.class);
+    private static final int MALFORMED_FRAME = -2;
+    private static final int FRAME_ACCEPTED = 0;
+    private static final int FRAME_DROPPED = 1;
+    private static final int READING_PAUSED = 2;
 
     private final PacketHandler<T> packetHandler;
     private final PacketExecutor<T> executor;
+    private final CompletionHandler<Long, T> segmentsHandler = new SegmentsReadHandler();
 
     ReadHandler(PacketHandler<T> packetHandler, PacketExecutor<T> executor) {
         this.packetHandler = packetHandler;
         this.executor =  executor;
     }
 
+    ReadHandler<T> withExecutor(PacketExecutor<T> executor) {
+        return new ReadHandler<>(packetHandler, executor);
+    }
+
+    CompletionHandler<Long, T> segmentsHandler() {
+        return segmentsHandler;
+    }
+
     @Override
     public void completed(Integer bytesRead, T client) {
         if(!client.isConnected()) {
@@ -53,7 +67,26 @@ class ReadHandler<T extends Client<Connection<T>>> implements CompletionHandler<
             client.disconnect();
             return;
         }
-        
+
+        if(client.getConnection().isReadingSegments()) {
+            if(bytesRead < client.getExpectedReadSize()) {
+                client.resumeRead(bytesRead);
+            } else {
+                handleSegments(client);
+            }
+            return;
+        }
+
+        if(client.getConnection().isReadAheadEnabled()) {
+            handleReadAhead(client);
+            return;
+        }
+
+        if(client.getSkippingSize() > 0) {
+            handleSkip(client, bytesRead);
+            return;
+        }
+
         if(bytesRead < client.getExpectedReadSize()) {
             client.resumeRead(bytesRead);
             return;
@@ -69,10 +102,30 @@ class ReadHandler<T extends Client<Connection<T>>> implements CompletionHandler<
     private void handleHeader(T client) {
         ByteBuffer buffer = client.getConnection().getReadingBuffer();
         buffer.flip();
-        int dataSize = Short.toUnsignedInt(buffer.getShort()) - HEADER_SIZE;
+        int dataSize = decodeHeader(client, buffer);
         if(dataSize > 0) {
-            client.readPayload(dataSize);
-        } else {
+            if(!isOversized(client, dataSize)) {
+                client.readPayload(dataSize);
+            } else if(client.isConnected()) {
+                client.skipPayload(dataSize);
+            }
+        } else if(dataSize == FrameCodec.INCOMPLETE) {
+            client.readHeaderByte();
+        } else if(dataSize == 0) {
+            client.isReading = false;
+            client.read();
+        }
+    }
+
+    private void handleSkip(T client, int bytesRead) {
+        int remaining = client.getSkippingSize() - bytesRead;
+        client.setSkippingSize(remaining);
+        if(remaining > 0) {
+            client.getConnection().skip(remaining);
+            return;
+        }
+        client.isReading = false;
+        if(client.canReadNextPacket()) {
             client.read();
         }
     }
@@ -80,18 +133,205 @@ class ReadHandler<T extends Client<Connection<T>>> implements CompletionHandler<
     private void handlePayload(T client) {
         ByteBuffer buffer = client.getConnection().getReadingBuffer();
         buffer.flip();
-        parseAndExecutePacket(client, buffer);
+        processPayload(client, buffer);
+    }
+
+    private void processPayload(T client, ByteBuffer buffer) {
+        int frameStatus = checkRateLimit(client, buffer.remaining());
+        if(frameStatus == READING_PAUSED) {
+            pauseReading(client, () -> processPayload(client, buffer));
+            return;
+        }
+        if(frameStatus == FRAME_ACCEPTED) {
+            parseAndExecutePacket(client, buffer);
+        }
         client.isReading = false;
         if(client.canReadNextPacket()) {
             client.read();
         }
     }
 
+    private void handleSegments(T client) {
+        processSegments(client, client.getConnection().readingSegmentsBuffer());
+    }
+
+    private void processSegments(T client, ReadableBuffer buffer) {
+        int frameStatus = checkRateLimit(client, buffer.remaining());
+        if(frameStatus == READING_PAUSED) {
+            pauseReading(client, () -> processSegments(client, buffer));
+            return;
+        }
+        if(frameStatus == FRAME_ACCEPTED) {
+            parseAndExecutePacket(client, buffer);
+        }
+        client.getConnection().releaseReadingSegments();
+        client.isReading = false;
+        if(client.canReadNextPacket()) {
+            client.read();
+        }
+    }
+
+    void handleReadAhead(T client) {
+        Connection<T> connection = client.getConnection();
+        ByteBuffer buffer = connection.getReadingBuffer();
+        buffer.flip();
+        skipReadAhead(client, buffer);
+        boolean readMore = true;
+        boolean stopped = false;
+        boolean paused = false;
+        int requiredSize = 0;
+        int segmentedPayloadSize = 0;
+        while (buffer.hasRemaining()) {
+            int frameStart = buffer.position();
+            int payloadSize = decodeHeader(client, buffer);
+            if(payloadSize < 0) {
+                if(!client.isConnected()) {
+                    return;
+                }
+                break;
+            }
+            if(isOversized(client, payloadSize)) {
+                if(!client.isConnected()) {
+                    return;
+                }
+                client.setSkippingSize(payloadSize);
+                skipReadAhead(client, buffer);
+                continue;
+            }
+            if(payloadSize > buffer.remaining()) {
+                if(connection.requiresSegments(payloadSize)) {
+                    segmentedPayloadSize = payloadSize;
+                    client.readPayloadSegments(payloadSize, buffer);
+                } else {
+                    requiredSize = buffer.position() - frameStart + payloadSize;
+                    buffer.position(frameStart);
+                }
+                break;
+            }
+            if(payloadSize > 0) {
+                int frameStatus = checkRateLimit(client, payloadSize);
+                if(frameStatus == READING_PAUSED) {
+                    buffer.position(frameStart);
+                    paused = true;
+                    break;
+                }
+                if(frameStatus == FRAME_DROPPED) {
+                    if(!client.isConnected()) {
+                        return;
+                    }
+                    buffer.position(buffer.position() + payloadSize);
+                    continue;
+                }
+                handleFrame(client, buffer, payloadSize);
+                if(!client.isConnected()) {
+                    return;
+                }
+                if(!client.canReadNextPacket()) {
+                    readMore = false;
+                    stopped = true;
+                    break;
+                }
+            }
+        }
+        connection.compactReadingBuffer(requiredSize);
+
+        if(paused) {
+            pauseReading(client, () -> handleReadAhead(client));
+        } else if(segmentedPayloadSize > 0 || readMore) {
+            connection.read();
+        } else {
+            client.isReading = false;
+            if(stopped) {
+                client.readIfResumed();
+            } else if(client.canReadNextPacket()) {
+                client.read();
+            }
+        }
+    }
+
+    private void skipReadAhead(T client, ByteBuffer buffer) {
+        int skippingSize = client.getSkippingSize();
+        if(skippingSize > 0) {
+            int skipped = Math.min(skippingSize, buffer.remaining());
+            buffer.position(buffer.position() + skipped);
+            client.setSkippingSize(skippingSize - skipped);
+        }
+    }
+
+    private boolean isOversized(T client, int payloadSize) {
+        int maxFrameSize = client.getMaxFrameSize();
+        if(maxFrameSize <= 0 || payloadSize <= maxFrameSize) {
+            return false;
+        }
+        ConnectionConfig config = client.getConnection().config;
+        config.oversizedFrames.increment();
+        if(config.oversizedFramePolicy == OversizedFramePolicy.DISCONNECT) {
+            LOGGER.warn("Client {} sent a frame of {} bytes, greater than the max {} bytes, disconnecting", client, payloadSize, maxFrameSize);
+            client.disconnect();
+        } else {
+            LOGGER.debug("Client {} sent a frame of {} bytes, greater than the max {} bytes, skipping", client, payloadSize, maxFrameSize);
+        }
+        return true;
+    }
+
+    private int checkRateLimit(T client, int payloadSize) {
+        RateLimit limit = client.getRateLimit();
+        if(isNull(limit) || client.tryConsumeRate(limit, payloadSize)) {
+            return FRAME_ACCEPTED;
+        }
+        switch (limit.action()) {
+            case PAUSE:
+                return READING_PAUSED;
+            case DISCONNECT:
+                LOGGER.warn("Client {} exceeded the {}, disconnecting", client, limit);
+                client.disconnect();
+                return FRAME_DROPPED;
+            default:
+                LOGGER.debug("Client {} exceeded the {}, dropping packet", client, limit);
+                return FRAME_DROPPED;
+        }
+    }
+
+    private void pauseReading(T client, Runnable resume) {
+        RateLimit limit = client.getRateLimit();
+        long pauseTime = nonNull(limit) ? limit.pauseTime() : 0;
+        LOGGER.debug("Client {} exceeded the rate limit, pausing reading for {} ms", client, pauseTime);
+        boolean scheduled = client.getConnection().config.schedule(() -> {
+            if(client.isConnected()) {
+                resume.run();
+            }
+        }, pauseTime, TimeUnit.MILLISECONDS);
+        if(!scheduled) {
+            LOGGER.debug("Could not resume the reading of {}", client);
+        }
+    }
+
+    private int decodeHeader(T client, ByteBuffer buffer) {
+        try {
+            return client.getFrameCodec().decode(buffer);
+        } catch (IllegalStateException e) {
+            LOGGER.warn("Malformed frame received from {}: {}", client, e.getMessage());
+            client.disconnect();
+            return MALFORMED_FRAME;
+        }
+    }
+
+    void handleFrame(T client, ByteBuffer buffer, int payloadSize) {
+        int end = buffer.position() + payloadSize;
+        int limit = buffer.limit();
+        buffer.limit(end);
+        parseAndExecutePacket(client, buffer);
+        buffer.limit(limit).position(end);
+    }
+
     private void parseAndExecutePacket(T client, ByteBuffer incomingBuffer) {
+        parseAndExecutePacket(client, client.getConnection().readableBufferOf(incomingBuffer));
+    }
+
+    private void parseAndExecutePacket(T client, ReadableBuffer buffer) {
         LOGGER.debug("Trying to parse data");
 
         try {
-            ReadableBuffer buffer = ReadableBuffer.of(incomingBuffer);
             boolean decrypted = client.decrypt(buffer, 0, buffer.remaining());
 
             if (decrypted) {
@@ -99,7 +339,7 @@ class ReadHandler<T extends Client<Connection<T>>> implements CompletionHandler<
                 LOGGER.debug("Data parsed to packet {}", packet);
                 if (nonNull(packet)) {
                     packet.init(client, buffer);
-                    execute(packet);
+                    execute(client, packet);
                 }
             }
         } catch (Exception e) {
@@ -107,16 +347,66 @@ class ReadHandler<T extends Client<Connection<T>>> implements CompletionHandler<
         }
     }
 
-    private void execute(ReadablePacket<T> packet) {
-        if(packet.read()) {
-            LOGGER.debug("packet {} was read from client {}", packet, packet.client);
-            executor.execute(packet);
+    private void execute(T client, ReadablePacket<T> packet) {
+        boolean executed = false;
+        boolean tracked = false;
+        try {
+            if (packet.read()) {
+                LOGGER.debug("packet {} was read from client {}", packet, client);
+                if(packet.isInline()) {
+                    executed = true;
+                    executeInline(client, packet);
+                    return;
+                }
+                if(client.isTrackingInFlightPackets()) {
+                    client.packetSubmitted();
+                    tracked = true;
+                }
+                executor.execute(packet.task(tracked, client.getConnection().config.flushAfterExecution));
+                executed = true;
+            }
+        } finally {
+            if(!executed) {
+                if(tracked) {
+                    client.packetExecuted();
+                }
+                packet.release();
+            }
         }
      }
 
+    private void executeInline(T client, ReadablePacket<T> packet) {
+        boolean corked = client.getConnection().config.flushAfterExecution;
+        if(corked) {
+            client.cork();
+        }
+        try {
+            packet.run();
+        } catch (Exception e) {
+            LOGGER.warn("Failed to execute inline packet {} from {}", packet, client, e);
+        } finally {
+            if(corked) {
+                client.flush();
+            }
+        }
+    }
+
     @Override
     public void failed(Throwable e, T client) {
         LOGGER.debug("Failed to read from {}", client, e);
         client.disconnect();
     }
+
+    private class SegmentsReadHandler implements CompletionHandler<Long, T> {
+
+        @Override
+        public void completed(Long bytesRead, T client) {
+            ReadHandler.this.completed(bytesRead.intValue(), client);
+        }
+
+        @Override
+        public void failed(Throwable e, T client) {
+            ReadHandler.this.failed(e, client);
+        }
+    }
 }
\ No newline at end of file
@@ -25,9 +25,9 @@ import static java.lang.Byte.toUnsignedInt;
 /**
  * This class represents a Packet received from the client.
  *
- * All data received must have a header with 2 bytes and an optional payload.
+ * All data received must be framed with a header and an optional payload. The header is read by the configured {@link FrameCodec}.
  *
- * The first and second bytes is a 16 bits integer holding the size of the packet.
+ * By default the header has 2 bytes. The first and second bytes is a 16 bits integer holding the size of the packet.
  *
  * @author JoeAlisson
  */
@@ -45,6 +45,31 @@ public abstract class ReadablePacket<T extends Client<Connection<T>>> implements
         this.buffer = buffer;
     }
 
+    void release() {
+        // only pooled packets hold resources
+    }
+
+    /**
+     * Discard the packet submitted to the {@link PacketExecutor} without executing it.
+     */
+    void discard() {
+        release();
+    }
+
+    /**
+     * Prepare the packet to be submitted to the {@link PacketExecutor}. The packet is wrapped only when required.
+     *
+     * @param tracked notify the client when the execution finishes
+     * @param corked cork the client while the packet is executed
+     * @return the task to be submitted
+     */
+    ReadablePacket<T> task(boolean tracked, boolean corked) {
+        if(tracked || corked) {
+            return new TrackedReadablePacket<>(this, tracked, corked);
+        }
+        return this;
+    }
+
     /**
      *
      * @return the available data to be read
@@ -199,5 +224,17 @@ public abstract class ReadablePacket<T extends Client<Connection<T>>> implements
         return client;
     }
 
+    /**
+     * Define if the packet is executed inline, on the I/O thread that read it, instead of being sent to the {@link PacketExecutor}.
+     *
+     * Inline execution avoids the executor handoff and should be used only by cheap and non-blocking packets, like keep-alive packets.
+     * An inline packet doesn't keep the order with the packets of the same client submitted to the executor.
+     *
+     * @return true if the packet must be executed inline. Default is false.
+     */
+    protected boolean isInline() {
+        return false;
+    }
+
     protected abstract boolean read();
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.BoundedArrayQueue;
+
+import java.util.function.Supplier;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A pool of {@link PooledReadablePacket} of the same type.
+ *
+ * The packets are got from the pool by the {@link PacketHandler} and are returned to the pool by the library after they are executed.
+ * When the pool is empty a new packet is created by the factory.
+ *
+ * @author JoeAlisson
+ */
+public final class ReadablePacketPool<P extends PooledReadablePacket<?>> {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final BoundedArrayQueue<P> packets;
+    private final Supplier<P> factory;
+
+    /**
+     * Create a ReadablePacketPool with the default capacity
+     *
+     * @param factory the factory used to create new packets
+     */
+    public ReadablePacketPool(Supplier<P> factory) {
+        this(factory, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a ReadablePacketPool
+     *
+     * @param factory the factory used to create new packets
+     * @param capacity the max amount of packets kept in the pool
+     */
+    public ReadablePacketPool(Supplier<P> factory, int capacity) {
+        this.factory = factory;
+        this.packets = new BoundedArrayQueue<>(capacity);
+    }
+
+    /**
+     * Get a packet from the pool or create a new one when the pool is empty.
+     *
+     * @return a packet ready to be used
+     */
+    public P get() {
+        P packet = packets.poll();
+        if(isNull(packet)) {
+            packet = factory.get();
+        }
+        packet.attach(this);
+        return packet;
+    }
+
+    @SuppressWarnings("unchecked")
+    void recycle(PooledReadablePacket<?> packet) {
+        packets.offer((P) packet);
+    }
+
+    /**
+     * @return the amount of packets available in the pool
+     */
+    public int available() {
+        return packets.size();
+    }
+}
@@ -18,6 +18,7 @@
  */
 package io.github.joealisson.mmocore;
 
+import io.github.joealisson.mmocore.internal.BoundedArrayQueue;
 import io.github.joealisson.mmocore.internal.BufferPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,8 +37,10 @@ import static java.util.Objects.nonNull;
 public class ResourcePool {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ResourcePool.class);
+    private static final int ARRAY_POOL_SIZE = 128;
 
     private final Map<Integer, BufferPool> bufferPools;
+    private final BoundedArrayQueue<byte[]> arrays = new BoundedArrayQueue<>(ARRAY_POOL_SIZE);
     private int[] bufferSizes;
     private int bufferSegmentSize;
 
@@ -47,14 +50,24 @@ public class ResourcePool {
         bufferSegmentSize = 64;
     }
 
-    ByteBuffer getHeaderBuffer() {
-        return getSizedBuffer(ConnectionConfig.HEADER_SIZE);
-    }
-
     ByteBuffer getSegmentBuffer() {
         return getSizedBuffer(bufferSegmentSize);
     }
 
+    /**
+     * Get a buffer to write a packet of the expected size. The buffer is never smaller than the segment
+     * size nor larger than the largest pooled buffer, the packet's buffer grows as needed.
+     *
+     * @param size the expected size of the packet, including the header
+     * @return a pooled buffer or a new one if the pool is empty
+     */
+    ByteBuffer getPacketBuffer(int size) {
+        if(size <= bufferSegmentSize || largestBufferSize() <= bufferSegmentSize) {
+            return getSegmentBuffer();
+        }
+        return getSizedBuffer(determineBufferSize(Math.min(size, largestBufferSize())));
+    }
+
     public ByteBuffer getBuffer(int size) {
         return getSizedBuffer(determineBufferSize(size));
     }
@@ -93,7 +106,8 @@ public class ResourcePool {
     }
 
     public void recycleBuffer(ByteBuffer buffer) {
-        if (nonNull(buffer)) {
+        // read-only buffers are views of shared frames, they are released by its frame
+        if (nonNull(buffer) && !buffer.isReadOnly()) {
             BufferPool pool = bufferPools.get(buffer.capacity());
             if(isNull(pool) || !pool.recycle(buffer)) {
                 LOGGER.debug("buffer was not recycled {} in pool {}", buffer, pool);
@@ -101,6 +115,35 @@ public class ResourcePool {
         }
     }
 
+    /**
+     * Get a heap array to hold a packet's data. The array may hold data of a previous use.
+     *
+     * @param size the minimum size of the array
+     * @return a pooled array or a new one with at least the segment size if the pool has no array large enough
+     */
+    public byte[] getArray(int size) {
+        byte[] array = arrays.poll();
+        if(isNull(array) || array.length < size) {
+            return new byte[Math.max(size, bufferSegmentSize)];
+        }
+        return array;
+    }
+
+    /**
+     * Return the array to the pool. Only arrays from the segment size up to the largest buffer size are pooled.
+     *
+     * @param array the array to be recycled
+     */
+    public void recycleArray(byte[] array) {
+        if(nonNull(array) && array.length >= bufferSegmentSize && array.length <= largestBufferSize()) {
+            arrays.offer(array);
+        }
+    }
+
+    int largestBufferSize() {
+        return bufferSizes[bufferSizes.length - 1];
+    }
+
     public int getSegmentSize() {
         return bufferSegmentSize;
     }
@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.ArrayPacketBuffer;
+import io.github.joealisson.mmocore.internal.InternalWritableBuffer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A framed packet's data held in pooled direct buffers and shared by the writes of many clients.
+ *
+ * Each write uses read-only views of the buffers, so the data is never copied. The buffers are returned to the
+ * {@link ResourcePool} when the last reference is released.
+ *
+ * @author JoeAlisson
+ */
+final class SharedFrame {
+
+    private final ByteBuffer[] buffers;
+    private final FrameCodec frameCodec;
+    private final ResourcePool resourcePool;
+    private final int size;
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private SharedFrame(ByteBuffer[] buffers, FrameCodec frameCodec, ResourcePool resourcePool, int size) {
+        this.buffers = buffers;
+        this.frameCodec = frameCodec;
+        this.resourcePool = resourcePool;
+        this.size = size;
+    }
+
+    /**
+     * Create a frame of the data written with the reserved header size of the frame codec.
+     *
+     * @param data the packet's data
+     * @param frameCodec the codec used to encode the header
+     * @param resourcePool the pool that provides the buffers
+     * @return the frame or null if there is no payload
+     */
+    static SharedFrame of(ArrayPacketBuffer data, FrameCodec frameCodec, ResourcePool resourcePool) {
+        int reservedHeaderSize = frameCodec.maxHeaderSize();
+        int payloadSize = data.limit() - reservedHeaderSize;
+        if(payloadSize <= 0) {
+            return null;
+        }
+        InternalWritableBuffer buffer = InternalWritableBuffer.dynamicOf(data, resourcePool);
+        int headerSize = frameCodec.headerSize(payloadSize);
+        int headerIndex = reservedHeaderSize - headerSize;
+        frameCodec.encode(buffer, headerIndex, payloadSize);
+        return new SharedFrame(buffer.toByteBuffers(headerIndex), frameCodec, resourcePool, headerSize + payloadSize);
+    }
+
+    void retain() {
+        references.incrementAndGet();
+    }
+
+    void release() {
+        if(references.decrementAndGet() == 0) {
+            for (ByteBuffer buffer : buffers) {
+                resourcePool.recycleBuffer(buffer);
+            }
+        }
+    }
+
+    /**
+     * @return read-only views of the frame's buffers, with independent positions.
+     */
+    ByteBuffer[] views() {
+        ByteBuffer[] views = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            views[i] = buffers[i].asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return views;
+    }
+
+    boolean isEncodedBy(FrameCodec codec) {
+        return frameCodec == codec;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int references() {
+        return references.get();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+/**
+ * Carries a reference of a {@link SharedFrame} to a client that sends it without copy.
+ *
+ * The reference is released when the client finishes writing the frame.
+ *
+ * @author JoeAlisson
+ */
+final class SharedFramePacket<T extends Client<Connection<T>>> extends WritablePacket<T> {
+
+    private final WritablePacket<T> packet;
+    private final SharedFrame frame;
+
+    SharedFramePacket(WritablePacket<T> packet, SharedFrame frame) {
+        this.packet = packet;
+        this.frame = frame;
+    }
+
+    SharedFrame frame() {
+        return frame;
+    }
+
+    @Override
+    public PacketPriority getPriority() {
+        return packet.getPriority();
+    }
+
+    @Override
+    int estimateSize(ResourcePool resourcePool) {
+        return frame.size();
+    }
+
+    @Override
+    public int getSizeHint() {
+        return packet.getSizeHint();
+    }
+
+    @Override
+    public long getCoalescingKey() {
+        return packet.getCoalescingKey();
+    }
+
+    @Override
+    public boolean canBeDropped(T client) {
+        return packet.canBeDropped(client);
+    }
+
+    @Override
+    protected boolean write(T client, WritableBuffer buffer) {
+        return packet.write(client, buffer);
+    }
+
+    @Override
+    public String toString() {
+        return packet.toString();
+    }
+}
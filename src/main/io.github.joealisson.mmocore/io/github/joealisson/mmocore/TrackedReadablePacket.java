@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+/**
+ * Wraps a packet submitted to the {@link PacketExecutor} to notify the client when the packet's execution finishes.
+ *
+ * When corked, the client is corked while the packet is executed, so the packets sent during the execution are flushed
+ * together when it finishes.
+ *
+ * The {@link PooledReadablePacket} is never wrapped, it does the same on its own execution.
+ *
+ * @author JoeAlisson
+ */
+final class TrackedReadablePacket<T extends Client<Connection<T>>> extends ReadablePacket<T> {
+
+    private final ReadablePacket<T> packet;
+    private final boolean tracked;
+    private final boolean corked;
+
+    TrackedReadablePacket(ReadablePacket<T> packet, boolean tracked, boolean corked) {
+        this.packet = packet;
+        this.tracked = tracked;
+        this.corked = corked;
+        init(packet.client, null);
+    }
+
+    @Override
+    protected boolean read() {
+        return true;
+    }
+
+    @Override
+    public void run() {
+        if(corked) {
+            client.cork();
+        }
+        try {
+            packet.run();
+        } finally {
+            try {
+                if(tracked) {
+                    client.packetExecuted();
+                }
+            } finally {
+                if(corked) {
+                    client.flush();
+                }
+            }
+        }
+    }
+
+    @Override
+    void discard() {
+        try {
+            packet.discard();
+        } finally {
+            if(tracked) {
+                client.packetExecuted();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return packet.toString();
+    }
+}
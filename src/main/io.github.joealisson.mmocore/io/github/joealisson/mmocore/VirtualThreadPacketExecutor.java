@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.VirtualThreads;
+
+/**
+ * A {@link PacketExecutor} that executes the packets on virtual threads, keeping the order of the packets of each client.
+ *
+ * The packets of a client are executed sequentially, each scheduling of the client's mailbox runs on a new virtual thread.
+ * So blocking operations inside the packets don't hold platform threads.
+ *
+ * Virtual threads are only available on Java 21 or later.
+ *
+ * @author JoeAlisson
+ */
+public final class VirtualThreadPacketExecutor<T extends Client<Connection<T>>> implements PacketExecutor<T> {
+
+    private final OrderedPacketExecutor<T> executor;
+
+    /**
+     * Create a VirtualThreadPacketExecutor that starts a virtual thread per packet.
+     *
+     * @throws UnsupportedOperationException if virtual threads are not supported
+     */
+    public VirtualThreadPacketExecutor() {
+        this(1);
+    }
+
+    /**
+     * Create a VirtualThreadPacketExecutor
+     *
+     * @param batchSize the max amount of packets of a client executed per virtual thread
+     *
+     * @throws UnsupportedOperationException if virtual threads are not supported
+     * @throws IllegalArgumentException if the batch size is less than 1
+     */
+    public VirtualThreadPacketExecutor(int batchSize) {
+        executor = new OrderedPacketExecutor<>(VirtualThreads.newThreadPerTaskExecutor("MMO-virtual-"), batchSize);
+    }
+
+    /**
+     * @return if virtual threads are supported by the running JVM
+     */
+    public static boolean isSupported() {
+        return VirtualThreads.isSupported();
+    }
+
+    @Override
+    public void execute(ReadablePacket<T> packet) {
+        executor.execute(packet);
+    }
+}
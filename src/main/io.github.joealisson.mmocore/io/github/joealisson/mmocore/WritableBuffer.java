@@ -18,8 +18,6 @@
  */
 package io.github.joealisson.mmocore;
 
-import java.nio.charset.StandardCharsets;
-
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
@@ -28,6 +26,8 @@ import static java.util.Objects.nonNull;
  */
 public abstract class WritableBuffer implements Buffer {
 
+    private static final char REPLACEMENT_CHAR = '\uFFFD';
+
     /**
      * Write a <B>byte</B> to the buffer. <BR>
      * 8bit integer (00)
@@ -140,6 +140,8 @@ public abstract class WritableBuffer implements Buffer {
      * Write a <B>String</B> to the buffer with a null termination (\000).
      * Each character is a 16bit char
      *
+     * The {@link EncodedString} texts are copied without encoding.
+     *
      * @param text to be written
      */
     public void writeString(final CharSequence text) {
@@ -147,24 +149,63 @@ public abstract class WritableBuffer implements Buffer {
             writeChar('\000');
             return;
         }
-        writeStringWithCharset(text);
+        writeEncoded(text);
         writeChar('\000');
     }
 
-    private void writeStringWithCharset(CharSequence text) {
-        writeBytes(text.toString().getBytes(StandardCharsets.UTF_16LE));
+    private void writeEncoded(CharSequence text) {
+        if(text instanceof EncodedString) {
+            writeBytes(((EncodedString) text).bytes());
+        } else {
+            writeChars(text);
+        }
+    }
+
+    /**
+     * Write the characters of the text as 16bit chars, without length or termination.
+     *
+     * The characters are encoded directly into the buffer. The implementations can override this method to
+     * ensure the space once to all characters.
+     *
+     * @param text to be written
+     */
+    protected void writeChars(final CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            writeChar(encodableChar(text, i));
+        }
+    }
+
+    /**
+     * Get the char to be written at the index of the text. Like the UTF-16 encoder, the unpaired surrogates
+     * are replaced by the replacement character (U+FFFD).
+     *
+     * @param text the text being written
+     * @param index the index of the char
+     * @return the char to be written
+     */
+    protected static char encodableChar(final CharSequence text, final int index) {
+        char c = text.charAt(index);
+        if(!Character.isSurrogate(c)) {
+            return c;
+        }
+        if(Character.isHighSurrogate(c)) {
+            return index + 1 < text.length() && Character.isLowSurrogate(text.charAt(index + 1)) ? c : REPLACEMENT_CHAR;
+        }
+        return index > 0 && Character.isHighSurrogate(text.charAt(index - 1)) ? c : REPLACEMENT_CHAR;
     }
 
     /**
      * Write <B>String</B> to the buffer preceded by a <B>short</B> 16 bit with String length and no null termination.
      * Each character is a 16bit char.
      *
+     * The {@link EncodedString} texts are copied without encoding.
+     *
      * @param text to be written
      */
     public void writeSizedString(final CharSequence text) {
         if(nonNull(text) && text.length() > 0) {
             writeShort(text.length());
-            writeStringWithCharset(text);
+            writeEncoded(text);
         } else {
             writeShort(0);
         }
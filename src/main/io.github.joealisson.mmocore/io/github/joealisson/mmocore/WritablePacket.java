@@ -20,28 +20,153 @@ package io.github.joealisson.mmocore;
 
 import io.github.joealisson.mmocore.internal.ArrayPacketBuffer;
 import io.github.joealisson.mmocore.internal.InternalWritableBuffer;
+import io.github.joealisson.mmocore.internal.MovingMaximum;
 import io.github.joealisson.mmocore.internal.NotWrittenBufferException;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 /**
  * This class represents a Packet that can be sent to clients.
  *
- * All data sent must have a header with 2 bytes and an optional payload.
+ * All data sent is framed with a header and an optional payload. The header is written by the configured {@link FrameCodec}.
  *
- * The first and second bytes is a 16 bits integer holding the size of the packet.
+ * By default the header has 2 bytes. The first and second bytes is a 16 bits integer holding the size of the packet.
  *
  * @author JoeAlisson
  */
 public abstract class WritablePacket<T extends Client<Connection<T>>> {
 
+    /**
+     * The coalescing key of the packets that don't replace each other.
+     */
+    public static final long NO_COALESCING_KEY = Long.MIN_VALUE;
+
+    private static final int SIZE_HINT_WINDOW = 64;
+    private static final ClassValue<MovingMaximum> LEARNED_SIZES = new ClassValue<>() {
+        @Override
+        protected MovingMaximum computeValue(Class<?> type) {
+            return new MovingMaximum(SIZE_HINT_WINDOW);
+        }
+    };
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<WritablePacket> ESTIMATED_SIZE = AtomicIntegerFieldUpdater.newUpdater(WritablePacket.class, "estimatedSize");
+
+    private final AtomicInteger pendingRecipients = new AtomicInteger();
     private volatile boolean broadcast;
-    private ArrayPacketBuffer broadcastCacheBuffer;
+    private volatile ArrayPacketBuffer broadcastCacheBuffer;
+    private volatile ArrayPacketBuffer sharedBuffer;
+    private int sharedHeaderSize;
+    private volatile int estimatedSize;
 
     protected WritablePacket() { }
 
+    /**
+     * Register a recipient that will write the packet's data. The cached data is kept while there are recipients to write it.
+     */
+    void retainRecipient() {
+        pendingRecipients.incrementAndGet();
+    }
+
+    /**
+     * Unregister a recipient that has written or discarded the packet.
+     *
+     * When the last recipient is released, the cached data is returned to the pool. So a packet sent again is written again.
+     */
+    void releaseRecipient() {
+        if(pendingRecipients.decrementAndGet() <= 0 && (nonNull(sharedBuffer) || nonNull(broadcastCacheBuffer))) {
+            releaseCache();
+        }
+    }
+
+    private synchronized void releaseCache() {
+        if(pendingRecipients.get() > 0) {
+            return;
+        }
+        ArrayPacketBuffer shared = sharedBuffer;
+        sharedBuffer = null;
+        if(nonNull(shared)) {
+            shared.recycle();
+        }
+        if(nonNull(broadcastCacheBuffer)) {
+            broadcastCacheBuffer.recycle();
+            broadcastCacheBuffer = null;
+        }
+    }
+
+    /**
+     * Estimate the size of the packet's data while it's queued.
+     *
+     * The estimation is the size of the cached data, if present, the size hint or the segment size. Once estimated, the size doesn't change,
+     * so the same amount is accounted when the packet is queued and when it leaves the queue.
+     *
+     * @param resourcePool the resource pool of the client
+     * @return the estimated size in bytes
+     */
+    int estimateSize(ResourcePool resourcePool) {
+        int size = estimatedSize;
+        if(size == 0) {
+            ArrayPacketBuffer cached = nonNull(sharedBuffer) ? sharedBuffer : broadcastCacheBuffer;
+            int hint = sizeHint();
+            int estimation = nonNull(cached) ? Math.max(1, cached.limit()) : hint > 0 ? hint : resourcePool.getSegmentSize();
+            ESTIMATED_SIZE.compareAndSet(this, 0, estimation);
+            size = estimatedSize;
+        }
+        return size;
+    }
+
+    /**
+     * Writes the packet's data once into a buffer shared by all the clients that the packet is sent to.
+     *
+     * The caller must retain a recipient while the shared data is used.
+     *
+     * @param client the client used to write the data
+     * @return true if the data was written
+     */
+    synchronized boolean writeSharedData(T client) {
+        int headerSize = client.getFrameCodec().maxHeaderSize();
+        ArrayPacketBuffer buffer = arrayBuffer(client.getResourcePool(), headerSize);
+        buffer.position(headerSize);
+        if(write(client, buffer)) {
+            buffer.mark();
+            learnSize(buffer.limit() - headerSize);
+            sharedHeaderSize = headerSize;
+            sharedBuffer = buffer;
+            return true;
+        }
+        buffer.recycle();
+        return false;
+    }
+
+    /**
+     * Create a frame of the shared data to be sent without copy.
+     *
+     * @param client the client whose frame codec and resource pool are used
+     * @return the frame or null if the shared data is absent or was written to another frame codec
+     */
+    SharedFrame sharedFrame(T client) {
+        ArrayPacketBuffer shared = sharedBuffer;
+        if(isNull(shared) || sharedHeaderSize != client.getFrameCodec().maxHeaderSize()) {
+            return null;
+        }
+        return SharedFrame.of(shared, client.getFrameCodec(), client.getResourcePool());
+    }
+
     InternalWritableBuffer writeData(T client) throws NotWrittenBufferException {
-        if(broadcast) {
+        ArrayPacketBuffer shared = sharedBuffer;
+        if(nonNull(shared) && sharedHeaderSize == client.getFrameCodec().maxHeaderSize()) {
+            InternalWritableBuffer copy = InternalWritableBuffer.dynamicOf(shared, client.getResourcePool());
+            // the shared data is nulled before it's returned to the pool, so it was intact while copied
+            if(shared == sharedBuffer) {
+                return copy;
+            }
+            copy.releaseResources();
+        }
+        if(broadcast || nonNull(broadcastCacheBuffer)) {
             return writeDataWithCache(client);
         }
         return writeDataToBuffer(client);
@@ -50,6 +175,8 @@ public abstract class WritablePacket<T extends Client<Connection<T>>> {
     private synchronized InternalWritableBuffer writeDataWithCache(T client) throws NotWrittenBufferException {
         if (nonNull(broadcastCacheBuffer)) {
             return InternalWritableBuffer.dynamicOf(broadcastCacheBuffer, client.getResourcePool());
+        } else if(!broadcast) {
+            return writeDataToBuffer(client);
         } else {
             InternalWritableBuffer buffer = writeDataToBuffer(client);
             if(buffer instanceof ArrayPacketBuffer) {
@@ -61,40 +188,125 @@ public abstract class WritablePacket<T extends Client<Connection<T>>> {
     }
 
     private InternalWritableBuffer writeDataToBuffer(T client) throws NotWrittenBufferException {
-        InternalWritableBuffer buffer = choosePacketBuffer(client);
+        int headerSize = client.getFrameCodec().maxHeaderSize();
+        InternalWritableBuffer buffer = choosePacketBuffer(client, headerSize);
 
-        buffer.position(ConnectionConfig.HEADER_SIZE);
+        buffer.position(headerSize);
         if (write(client, buffer)) {
             buffer.mark();
+            learnSize(buffer.limit() - headerSize);
             return buffer;
         }
         buffer.releaseResources();
         throw new NotWrittenBufferException();
     }
 
-    private InternalWritableBuffer choosePacketBuffer(T client) {
+    private InternalWritableBuffer choosePacketBuffer(T client, int headerSize) {
+        ResourcePool resourcePool = client.getResourcePool();
         if(broadcast) {
-            return InternalWritableBuffer.arrayBacked(client.getResourcePool());
+            return arrayBuffer(resourcePool, headerSize);
         }
-        return InternalWritableBuffer.dynamicOf(client.getResourcePool().getSegmentBuffer(), client.getResourcePool());
+        int hint = sizeHint();
+        if(hint > 0) {
+            return InternalWritableBuffer.dynamicOf(resourcePool.getPacketBuffer(headerSize + hint), resourcePool);
+        }
+        return InternalWritableBuffer.dynamicOf(resourcePool.getSegmentBuffer(), resourcePool);
+    }
+
+    private ArrayPacketBuffer arrayBuffer(ResourcePool resourcePool, int headerSize) {
+        return ArrayPacketBuffer.pooled(headerSize + sizeHint(), resourcePool);
     }
 
-    void writeHeader(InternalWritableBuffer buffer, int header) {
-        buffer.writeShort(0, (short) header);
+    private int sizeHint() {
+        int hint = getSizeHint();
+        return hint > 0 ? hint : LEARNED_SIZES.get(getClass()).get();
+    }
+
+    private void learnSize(int size) {
+        if(getSizeHint() <= 0) {
+            LEARNED_SIZES.get(getClass()).add(size);
+        }
     }
 
     /**
-     * Mark this packet as broadcast. A broadcast packet is sent to more than one client.
+     * A hint of the size of the packet's data, used to take a buffer of the right size before the packet is written.
+     * So the data of big packets isn't spread over many small buffers.
+     *
+     * When the hint is not given, the maximum size of the latest packets of the same class is used.
+     *
+     * @return the expected size in bytes of the packet's data without the header, or 0 to use the learned size. The default is 0
+     */
+    public int getSizeHint() {
+        return 0;
+    }
+
+    /**
+     * Open the broadcast scope of this packet. A broadcast packet is sent to more than one client.
      *
      * Caution: This method should be called before {@link Client#writePacket(WritablePacket)}
      *
      * A broadcast packet will create a Buffer cache where the data is written once and only the copy is sent to the client.
+     * The cache is kept until the scope is closed by {@link #closeBroadcast()} and all the clients that the packet was sent to
+     * have written it, then it's returned to the pool. So the packet is written once however the clients write it.
      * note: Each copy will be encrypted to each client
+     */
+    public synchronized void openBroadcast() {
+        if(!broadcast) {
+            broadcast = true;
+            retainRecipient();
+        }
+    }
+
+    /**
+     * Close the broadcast scope opened by {@link #openBroadcast()}, after the packet was sent to all the clients.
+     *
+     * The clients that still have the packet queued keep writing the cached data.
+     */
+    public synchronized void closeBroadcast() {
+        if(broadcast) {
+            broadcast = false;
+            releaseRecipient();
+        }
+    }
+
+    /**
+     * Mark this packet as broadcast. A broadcast packet is sent to more than one client.
+     *
+     * @param broadcast true to open the broadcast scope before the packet is sent to the clients, false to close it after
      *
-     * @param broadcast true if the packet is sent to more than one client
+     * @deprecated a scope opened by {@code sendInBroadcast(true)} and never closed keeps the cached data for the packet's lifetime.
+     * Use {@link #openBroadcast()} and {@link #closeBroadcast()} or a {@link ClientGroup}.
      */
+    @Deprecated
     public void sendInBroadcast(boolean broadcast) {
-        this.broadcast = broadcast;
+        if(broadcast) {
+            openBroadcast();
+        } else {
+            closeBroadcast();
+        }
+    }
+
+    /**
+     * The priority of the packet. The queued packets with a higher priority are sent before the lower ones,
+     * and the droppable packets with the lowest priority are the first to be dropped when the client is congested.
+     *
+     * @return the packet's priority. The default is {@link PacketPriority#NORMAL}
+     */
+    public PacketPriority getPriority() {
+        return PacketPriority.NORMAL;
+    }
+
+    /**
+     * The coalescing key of the packet. Packets holding a state where only the latest matters, e.g. the position of an entity,
+     * can return a key identifying the state.
+     *
+     * If a packet with the same key is still queued to the client, the new packet replaces it in place, and the queued packet
+     * is discarded without being written.
+     *
+     * @return the packet's coalescing key. The default is {@link #NO_COALESCING_KEY}
+     */
+    public long getCoalescingKey() {
+        return NO_COALESCING_KEY;
     }
 
     /**
@@ -23,6 +23,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.channels.CompletionHandler;
+import java.nio.channels.InterruptedByTimeoutException;
 
 /**
  * @author JoeAlisson
@@ -51,7 +52,10 @@ class WriteHandler<T extends Client<Connection<T>>> implements CompletionHandler
 
     @Override
     public void failed(Throwable e, T client) {
-        if(! (e instanceof IOException)) {
+        if(e instanceof InterruptedByTimeoutException) {
+            LOGGER.warn("The write to client {} timed out, disconnecting", client);
+            client.writeStalled();
+        } else if(! (e instanceof IOException)) {
             LOGGER.warn(e.getMessage(), e);
         }
         client.disconnect();
@@ -30,12 +30,15 @@ import static java.lang.Double.doubleToRawLongBits;
 import static java.lang.Double.longBitsToDouble;
 import static java.lang.Float.intBitsToFloat;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
  * @author JoeAlisson
  */
 public class ArrayPacketBuffer extends InternalWritableBuffer implements ReadableBuffer {
 
+    private static final byte[] EMPTY = new byte[0];
+
     private final ResourcePool resourcePool;
     private byte[] data;
     private int index;
@@ -45,13 +48,29 @@ public class ArrayPacketBuffer extends InternalWritableBuffer implements Readabl
      * Create a ArrayPacketBuffer
      *
      * @param size the initial buffer size
-     * @param resourcePool the resource pool used to get ByteBuffers
+     * @param resourcePool the resource pool used to get ByteBuffers and to recycle the arrays. It may be null when the
+     *                     buffer is never converted to ByteBuffers
      */
     public ArrayPacketBuffer(int size, ResourcePool resourcePool) {
-        data = new byte[size];
+        this(new byte[size], resourcePool);
+    }
+
+    private ArrayPacketBuffer(byte[] data, ResourcePool resourcePool) {
+        this.data = data;
         this.resourcePool = resourcePool;
     }
 
+    /**
+     * Create a ArrayPacketBuffer backed by a pooled array. The array should be returned to the pool by {@link #recycle()}
+     *
+     * @param size the minimum initial buffer size
+     * @param resourcePool the resource pool used to get the array and ByteBuffers
+     * @return a buffer backed by an array of at least the given size
+     */
+    public static ArrayPacketBuffer pooled(int size, ResourcePool resourcePool) {
+        return new ArrayPacketBuffer(resourcePool.getArray(size), resourcePool);
+    }
+
     @Override
     public void writeByte(byte value) {
         writeByte(index++, value);
@@ -65,8 +84,16 @@ public class ArrayPacketBuffer extends InternalWritableBuffer implements Readabl
 
     private void ensureSize(int size) {
         if(data.length < size) {
+            byte[] old = data;
             data = Arrays.copyOf(data, (int) ((data.length + size) * 1.2));
             limit = data.length;
+            recycleArray(old);
+        }
+    }
+
+    private void recycleArray(byte[] array) {
+        if(nonNull(resourcePool)) {
+            resourcePool.recycleArray(array);
         }
     }
 
@@ -81,6 +108,17 @@ public class ArrayPacketBuffer extends InternalWritableBuffer implements Readabl
         index += bytes.length;
     }
 
+    @Override
+    protected void writeChars(CharSequence text) {
+        int length = text.length();
+        ensureSize(index + length * 2);
+        for (int i = 0; i < length; i++) {
+            char c = encodableChar(text, i);
+            data[index++] = (byte) c;
+            data[index++] = (byte) (c >>> 8);
+        }
+    }
+
     @Override
     public void writeShort(short value) {
         writeShort(index, value);
@@ -238,13 +276,17 @@ public class ArrayPacketBuffer extends InternalWritableBuffer implements Readabl
     }
 
     @Override
-    public ByteBuffer[] toByteBuffers() {
-        return new ByteBuffer[] { toByteBuffer() };
+    public ByteBuffer[] toByteBuffers(int offset) {
+        return new ByteBuffer[] { toByteBuffer(offset) };
     }
 
     ByteBuffer toByteBuffer() {
-        ByteBuffer buffer = resourcePool.getBuffer(limit);
-        buffer.put(data, 0, limit);
+        return toByteBuffer(0);
+    }
+
+    private ByteBuffer toByteBuffer(int offset) {
+        ByteBuffer buffer = resourcePool.getBuffer(limit - offset);
+        buffer.put(data, offset, limit - offset);
         return  buffer.flip();
     }
 
@@ -254,6 +296,16 @@ public class ArrayPacketBuffer extends InternalWritableBuffer implements Readabl
         limit = data.length;
     }
 
+    /**
+     * Return the backing array to the pool. The buffer must not be used after recycled.
+     */
+    public void recycle() {
+        recycleArray(data);
+        data = EMPTY;
+        index = 0;
+        limit = 0;
+    }
+
     @Override
     public int remaining() {
         return limit - index;
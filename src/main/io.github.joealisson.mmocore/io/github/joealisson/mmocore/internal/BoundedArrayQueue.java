@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore.internal;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded lock-free multi-producer/multi-consumer queue backed by an array.
+ *
+ * Each slot holds a sequence number that tells producers and consumers whether the slot is ready to be used,
+ * so no allocation happens when elements are added or removed.
+ *
+ * @author JoeAlisson
+ */
+public class BoundedArrayQueue<E> {
+
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final int mask;
+
+    /**
+     * Create a Bounded Array Queue
+     *
+     * @param capacity the minimum capacity of the queue. The capacity is rounded up to the next power of 2.
+     */
+    public BoundedArrayQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        elements = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Add the element at the tail of the queue
+     *
+     * @param element the element to be added
+     * @return true if the element was added, false if the queue is full
+     * @throws NullPointerException if the element is null
+     */
+    public boolean offer(E element) {
+        Objects.requireNonNull(element);
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if(difference == 0) {
+                if(tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if(difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Remove the element at the head of the queue
+     *
+     * @return the head element or null if the queue is empty
+     */
+    public E poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if(difference == 0) {
+                if(head.compareAndSet(position, position + 1)) {
+                    E element = elements.get(index);
+                    elements.lazySet(index, null);
+                    sequences.lazySet(index, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if(difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * @return the amount of elements in the queue
+     */
+    public int size() {
+        long currentHead;
+        long currentTail;
+        do {
+            currentHead = head.get();
+            currentTail = tail.get();
+        } while (currentHead != head.get());
+        return (int) Math.max(0, currentTail - currentHead);
+    }
+
+    /**
+     * @return the max amount of elements supported
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -103,6 +103,32 @@ public class DynamicPacketBuffer extends InternalWritableBuffer {
         } while (length > 0);
     }
 
+    @Override
+    protected void writeChars(CharSequence text) {
+        int length = text.length();
+        if(length == 0) {
+            return;
+        }
+        ensureSize(bufferIndex + length * 2);
+        int index = bufferIndex;
+        PacketNode node = indexToNode(index);
+        for (int i = 0; i < length; i++) {
+            char c = encodableChar(text, i);
+            if(index + 2 <= node.endIndex) {
+                node.buffer.putChar(node.idx(index), c);
+            } else {
+                // the char is split between two nodes
+                setByte(index, (byte) c);
+                setByte(index + 1, (byte) (c >>> 8));
+            }
+            index += 2;
+            if(index >= node.endIndex && i + 1 < length) {
+                node = indexToNode(index);
+            }
+        }
+        bufferIndex = index;
+    }
+
     @Override
     public void writeShort(short value) {
         ensureSize(bufferIndex + 2);
@@ -342,11 +368,15 @@ public class DynamicPacketBuffer extends InternalWritableBuffer {
     }
 
     @Override
-    public ByteBuffer[] toByteBuffers() {
+    public ByteBuffer[] toByteBuffers(int offset) {
         int maxNode = indexToNode(limit - 1).offset;
         ByteBuffer[] buffers = new ByteBuffer[maxNode+1];
         for (int i = 0; i <= maxNode; i++) {
-            buffers[i] = nodes[i].buffer;
+            PacketNode node = nodes[i];
+            if(node.initialIndex < offset) {
+                node.buffer.position(min(node.idx(offset), node.buffer.limit()));
+            }
+            buffers[i] = node.buffer;
         }
         return buffers;
     }
@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore.internal;
+
+import io.github.joealisson.mmocore.Buffer;
+import io.github.joealisson.mmocore.FrameCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @author JoeAlisson
+ */
+public final class IntFrameCodec implements FrameCodec {
+
+    public static final FrameCodec INSTANCE = new IntFrameCodec();
+
+    private static final int HEADER_SIZE = 4;
+
+    private IntFrameCodec() {
+        // singleton
+    }
+
+    @Override
+    public int minHeaderSize() {
+        return HEADER_SIZE;
+    }
+
+    @Override
+    public int maxHeaderSize() {
+        return HEADER_SIZE;
+    }
+
+    @Override
+    public int headerSize(int payloadSize) {
+        return HEADER_SIZE;
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) {
+        if(buffer.remaining() < HEADER_SIZE) {
+            return INCOMPLETE;
+        }
+        int frameSize = buffer.getInt(buffer.position());
+        if(frameSize < 0) {
+            throw new IllegalStateException("Invalid frame size " + Integer.toUnsignedString(frameSize));
+        }
+        buffer.position(buffer.position() + HEADER_SIZE);
+        return Math.max(0, frameSize - HEADER_SIZE);
+    }
+
+    @Override
+    public void encode(Buffer buffer, int index, int payloadSize) {
+        if(payloadSize > Integer.MAX_VALUE - HEADER_SIZE) {
+            throw new IllegalArgumentException("The payload size " + payloadSize + " can't be encoded");
+        }
+        buffer.writeInt(index, payloadSize + HEADER_SIZE);
+    }
+}
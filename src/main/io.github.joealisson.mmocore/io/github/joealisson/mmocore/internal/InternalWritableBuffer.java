@@ -50,7 +50,17 @@ public abstract class InternalWritableBuffer extends WritableBuffer {
      *
      * @return an array of ByteBuffers with WritableBuffers' content
      */
-    public abstract ByteBuffer[] toByteBuffers();
+    public ByteBuffer[] toByteBuffers() {
+        return toByteBuffers(0);
+    }
+
+    /**
+     * transform the Writable Buffer content starting at offset into a array of ByteBuffers
+     *
+     * @param offset the index of the first byte of the content
+     * @return an array of ByteBuffers with WritableBuffers' content
+     */
+    public abstract ByteBuffer[] toByteBuffers(int offset);
 
     /**
      * release the resources used
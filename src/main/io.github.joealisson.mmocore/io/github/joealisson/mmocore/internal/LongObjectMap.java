@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore.internal;
+
+import java.util.Arrays;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A hash map of primitive long keys, without boxing the keys.
+ *
+ * The entries are stored in open addressing with linear probing. The removal shifts back the following entries,
+ * so there are no tombstones.
+ *
+ * This class is not thread-safe, it must be used by one thread at a time.
+ *
+ * @author JoeAlisson
+ */
+public final class LongObjectMap<V> {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    /**
+     * Create a Long Object Map
+     *
+     * @param capacity the initial capacity. The capacity is rounded up to the next power of 2.
+     */
+    public LongObjectMap(int capacity) {
+        allocate(Integer.highestOneBit(Math.max(2, capacity) - 1) << 1);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * @param key the key of the value
+     * @return the value mapped to the key or null if there is no mapping
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        for (int index = indexOf(key); nonNull(values[index]); index = (index + 1) & mask) {
+            if(keys[index] == key) {
+                return (V) values[index];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Map the value to the key
+     *
+     * @param key the key of the value
+     * @param value the value to be mapped
+     * @return the previous value mapped to the key or null if there was no mapping
+     * @throws NullPointerException if the value is null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if(isNull(value)) {
+            throw new NullPointerException("The value must not be null");
+        }
+        int index = indexOf(key);
+        for (; nonNull(values[index]); index = (index + 1) & mask) {
+            if(keys[index] == key) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+        }
+        keys[index] = key;
+        values[index] = value;
+        if(++size > resizeThreshold) {
+            resize();
+        }
+        return null;
+    }
+
+    /**
+     * Remove the mapping of the key
+     *
+     * @param key the key to be removed
+     * @return the value mapped to the key or null if there was no mapping
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        for (int index = indexOf(key); nonNull(values[index]); index = (index + 1) & mask) {
+            if(keys[index] == key) {
+                V previous = (V) values[index];
+                values[index] = null;
+                size--;
+                shiftBack(index);
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    private void shiftBack(int removed) {
+        int free = removed;
+        for (int index = (removed + 1) & mask; nonNull(values[index]); index = (index + 1) & mask) {
+            int ideal = indexOf(keys[index]);
+            // the entry can be moved to the free slot only if the free slot is between its ideal and actual slots
+            if(((index - ideal) & mask) >= ((index - free) & mask)) {
+                keys[free] = keys[index];
+                values[free] = values[index];
+                values[index] = null;
+                free = index;
+            }
+        }
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(keys.length << 1);
+        for (int i = 0; i < oldValues.length; i++) {
+            if(nonNull(oldValues[i])) {
+                int index = indexOf(oldKeys[i]);
+                while (nonNull(values[index])) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private int indexOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore.internal;
+
+/**
+ * The maximum of the values added in the last one or two windows of samples.
+ *
+ * When a window is completed, its maximum is kept as the previous maximum and a new window starts. So an outlier value
+ * is forgotten after two windows.
+ *
+ * The updates are not synchronized, the concurrent updates can lose samples, which only makes a window longer.
+ * It's meant to be used as a hint, not as an exact statistic.
+ *
+ * @author JoeAlisson
+ */
+public class MovingMaximum {
+
+    private final int window;
+    private volatile int previous;
+    private volatile int current;
+    private int samples;
+
+    /**
+     * Create a Moving Maximum
+     *
+     * @param window the amount of samples of each window
+     * @throws IllegalArgumentException if the window is less than 1
+     */
+    public MovingMaximum(int window) {
+        if(window < 1) {
+            throw new IllegalArgumentException("The window must be at least 1");
+        }
+        this.window = window;
+    }
+
+    /**
+     * Add a sample value
+     *
+     * @param value the value to be added
+     */
+    public void add(int value) {
+        if(value > current) {
+            current = value;
+        }
+        if(++samples >= window) {
+            samples = 0;
+            previous = current;
+            current = 0;
+        }
+    }
+
+    /**
+     * @return the maximum value of the last samples, or 0 if there is no sample
+     */
+    public int get() {
+        return Math.max(previous, current);
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore.internal;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A lock-free multi-producer/single-consumer queue backed by linked array chunks.
+ *
+ * The producers reserve a position by incrementing the tail and store the element into the chunk of the position.
+ * A chunk is linked only when the queue grows over the linked chunks, so no allocation happens per element. The array of a
+ * chunk left by the consumer is reused by the next chunk linked, so a queue holding fewer elements than a chunk doesn't
+ * allocate arrays once it reaches its steady state.
+ *
+ * The size is exact: it's incremented before the element is added and decremented when the element is polled or removed.
+ * So the queue may be not empty while the element being added is still not available to {@link #poll()}, see {@link #hasAvailable()}.
+ *
+ * The elements can be added and removed concurrently, but must be polled by a single thread at a time.
+ *
+ * @author JoeAlisson
+ */
+public final class MpscArrayQueue<E> {
+
+    private static final Object REMOVED = new Object();
+
+    private final int chunkSize;
+    private final int chunkShift;
+    private final int capacity;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicReference<Chunk> producerChunk;
+    private final AtomicReference<AtomicReferenceArray<Object>> spareElements = new AtomicReference<>();
+    private volatile Chunk consumerChunk;
+
+    /**
+     * Create a unbounded MPSC Array Queue
+     *
+     * @param chunkSize the minimum size of each chunk. The size is rounded up to the next power of 2.
+     */
+    public MpscArrayQueue(int chunkSize) {
+        this(chunkSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create a MPSC Array Queue
+     *
+     * @param chunkSize the minimum size of each chunk. The size is rounded up to the next power of 2.
+     * @param capacity the max amount of elements in the queue
+     * @throws IllegalArgumentException if the capacity is lower than 1
+     */
+    public MpscArrayQueue(int chunkSize, int capacity) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be greater than 0");
+        }
+        this.chunkSize = Integer.highestOneBit(Math.max(2, chunkSize) - 1) << 1;
+        this.chunkShift = Integer.numberOfTrailingZeros(this.chunkSize);
+        this.capacity = capacity;
+        Chunk first = new Chunk(0, new AtomicReferenceArray<>(this.chunkSize));
+        producerChunk = new AtomicReference<>(first);
+        consumerChunk = first;
+    }
+
+    /**
+     * Add the element at the tail of the queue
+     *
+     * @param element the element to be added
+     * @return true if the element was added, false if the queue is full
+     * @throws NullPointerException if the element is null
+     */
+    public boolean offer(E element) {
+        Objects.requireNonNull(element);
+        int current;
+        do {
+            current = size.get();
+            if(current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+
+        // the chunk must be read before the position is reserved, so it's never ahead of the position's chunk
+        Chunk chunk = producerChunk.get();
+        long position = tail.getAndIncrement();
+        chunk = chunkOf(chunk, position >>> chunkShift);
+        chunk.elements.lazySet((int) position & (chunkSize - 1), element);
+        return true;
+    }
+
+    private Chunk chunkOf(Chunk chunk, long index) {
+        while (chunk.index < index) {
+            Chunk next = chunk.next;
+            if(isNull(next)) {
+                next = linkChunk(chunk);
+            }
+            chunk = next;
+        }
+        Chunk current = producerChunk.get();
+        while (current.index < chunk.index && !producerChunk.compareAndSet(current, chunk)) {
+            current = producerChunk.get();
+        }
+        return chunk;
+    }
+
+    private Chunk linkChunk(Chunk chunk) {
+        AtomicReferenceArray<Object> elements = spareElements.getAndSet(null);
+        if(isNull(elements)) {
+            elements = new AtomicReferenceArray<>(chunkSize);
+        }
+        Chunk created = new Chunk(chunk.index + 1, elements);
+        if(Chunk.NEXT.compareAndSet(chunk, null, created)) {
+            return created;
+        }
+        spareElements.compareAndSet(null, elements);
+        return chunk.next;
+    }
+
+    /**
+     * Remove the element at the head of the queue. Must be called by a single thread at a time.
+     *
+     * @return the element removed or null if there is no element available
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        while (true) {
+            long position = head.get();
+            Chunk chunk = consumerChunk;
+            if(position >>> chunkShift != chunk.index) {
+                Chunk next = chunk.next;
+                if(isNull(next)) {
+                    return null;
+                }
+                consumerChunk = next;
+                // all the elements of the left chunk were polled and its producers are done, so the empty array can be reused
+                spareElements.lazySet(chunk.elements);
+                chunk = next;
+            }
+            int index = (int) position & (chunkSize - 1);
+            if(isNull(chunk.elements.get(index))) {
+                return null;
+            }
+            Object element = chunk.elements.getAndSet(index, null);
+            head.lazySet(position + 1);
+            if(element != REMOVED) {
+                size.decrementAndGet();
+                return (E) element;
+            }
+        }
+    }
+
+    /**
+     * Remove the first element accepted by the filter, starting by the head of the queue.
+     *
+     * @param filter the filter of the element to be removed
+     * @return the element removed or null if no element was accepted
+     */
+    public E removeFirst(Predicate<? super E> filter) {
+        return removeFirstMatching(element -> filter.test(element) ? element : null);
+    }
+
+    /**
+     * Remove the first element matched by the matcher, starting by the head of the queue.
+     *
+     * @param matcher the function that maps the element to be removed to a non-null result, and the other elements to null
+     * @param <R> the result type
+     * @return the matcher's result of the element removed or null if no element was matched
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R removeFirstMatching(Function<? super E, ? extends R> matcher) {
+        long position = head.get();
+        Chunk chunk = consumerChunk;
+        long end = tail.get();
+        for (; position < end && nonNull(chunk); position++) {
+            while (nonNull(chunk) && chunk.index < position >>> chunkShift) {
+                chunk = chunk.next;
+            }
+            if(isNull(chunk) || chunk.index > position >>> chunkShift) {
+                // the consumer has passed the position
+                chunk = consumerChunk;
+                position = head.get() - 1;
+                continue;
+            }
+            int index = (int) position & (chunkSize - 1);
+            Object element = chunk.elements.get(index);
+            if(isNull(element) || element == REMOVED) {
+                continue;
+            }
+            R match = matcher.apply((E) element);
+            if(nonNull(match) && chunk.elements.compareAndSet(index, element, REMOVED)) {
+                size.decrementAndGet();
+                return match;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check if the element at the head of the queue was published, so it's available to {@link #poll()}.
+     *
+     * Unlike {@link #isEmpty()}, an element whose addition is still in progress is not available. The producer of such an element
+     * sees the consequences of any action taken before this check, e.g. a lock released by the consumer.
+     *
+     * @return true if the head element is available
+     */
+    public boolean hasAvailable() {
+        long position = head.get();
+        Chunk chunk = consumerChunk;
+        if(position >>> chunkShift != chunk.index) {
+            chunk = chunk.next;
+            if(isNull(chunk) || position >>> chunkShift != chunk.index) {
+                return false;
+            }
+        }
+        return nonNull(chunk.elements.get((int) position & (chunkSize - 1)));
+    }
+
+    /**
+     * @return the amount of elements in the queue
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private static final class Chunk {
+        private static final AtomicReferenceFieldUpdater<Chunk, Chunk> NEXT = AtomicReferenceFieldUpdater.newUpdater(Chunk.class, Chunk.class, "next");
+
+        private final long index;
+        private final AtomicReferenceArray<Object> elements;
+        private volatile Chunk next;
+
+        private Chunk(long index, AtomicReferenceArray<Object> elements) {
+            this.index = index;
+            this.elements = elements;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore.internal;
+
+import io.github.joealisson.mmocore.ReadableBuffer;
+
+import java.nio.ByteBuffer;
+
+import static java.lang.Math.min;
+
+/**
+ * A ReadableBuffer over a chain of buffers of the same capacity.
+ *
+ * The data is read across the buffers boundaries as if they were a single buffer.
+ *
+ * @author JoeAlisson
+ */
+public class SegmentedReadableBuffer implements ReadableBuffer {
+
+    private final ByteBuffer[] segments;
+    private final int segmentSize;
+    private int position;
+    private int limit;
+
+    /**
+     * Create a SegmentedReadableBuffer
+     *
+     * @param segments the buffers holding the data. All buffers but the last must be full.
+     * @param segmentSize the capacity of each buffer
+     * @param size the amount of data in the buffers
+     */
+    public SegmentedReadableBuffer(ByteBuffer[] segments, int segmentSize, int size) {
+        this.segments = segments;
+        this.segmentSize = segmentSize;
+        this.limit = size;
+    }
+
+    @Override
+    public byte readByte() {
+        return readByte(next(1));
+    }
+
+    @Override
+    public short readShort() {
+        return readShort(next(2));
+    }
+
+    @Override
+    public char readChar() {
+        return (char) readShort();
+    }
+
+    @Override
+    public int readInt() {
+        return readInt(next(4));
+    }
+
+    @Override
+    public float readFloat() {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    @Override
+    public long readLong() {
+        int index = next(8);
+        ByteBuffer segment = segments[index / segmentSize];
+        int idx = index % segmentSize;
+        if(idx + 8 <= segmentSize) {
+            return segment.getLong(idx);
+        }
+        return getInt(index) & 0xFFFFFFFFL | (getInt(index + 4) & 0xFFFFFFFFL) << 32;
+    }
+
+    @Override
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    @Override
+    public void readBytes(byte[] dst) {
+        readBytes(dst, 0, dst.length);
+    }
+
+    @Override
+    public void readBytes(byte[] dst, int offset, int length) {
+        int index = next(length);
+        while (length > 0) {
+            ByteBuffer segment = segments[index / segmentSize];
+            int idx = index % segmentSize;
+            int available = min(length, segmentSize - idx);
+            segment.position(idx);
+            segment.get(dst, offset, available);
+            length -= available;
+            offset += available;
+            index += available;
+        }
+    }
+
+    @Override
+    public int remaining() {
+        return limit - position;
+    }
+
+    private int next(int size) {
+        int index = position;
+        checkBounds(index, size);
+        position += size;
+        return index;
+    }
+
+    private void checkBounds(int index, int length) {
+        if(index < 0 || index + length > limit) {
+            throw new IndexOutOfBoundsException("Trying access index " + index + " until index " + (index + length) +" , max accessible index is " + limit);
+        }
+    }
+
+    @Override
+    public byte readByte(int index) {
+        checkBounds(index, 1);
+        return getByte(index);
+    }
+
+    private byte getByte(int index) {
+        return segments[index / segmentSize].get(index % segmentSize);
+    }
+
+    @Override
+    public void writeByte(int index, byte value) {
+        checkBounds(index, 1);
+        setByte(index, value);
+    }
+
+    private void setByte(int index, byte value) {
+        segments[index / segmentSize].put(index % segmentSize, value);
+    }
+
+    @Override
+    public short readShort(int index) {
+        checkBounds(index, 2);
+        return getShort(index);
+    }
+
+    private short getShort(int index) {
+        int idx = index % segmentSize;
+        if(idx + 2 <= segmentSize) {
+            return segments[index / segmentSize].getShort(idx);
+        }
+        return (short) (getByte(index) & 0xFF | (getByte(index + 1) & 0xFF) << 8);
+    }
+
+    @Override
+    public void writeShort(int index, short value) {
+        checkBounds(index, 2);
+        setShort(index, value);
+    }
+
+    private void setShort(int index, short value) {
+        int idx = index % segmentSize;
+        if(idx + 2 <= segmentSize) {
+            segments[index / segmentSize].putShort(idx, value);
+        } else {
+            setByte(index, (byte) value);
+            setByte(index + 1, (byte) (value >>> 8));
+        }
+    }
+
+    @Override
+    public int readInt(int index) {
+        checkBounds(index, 4);
+        return getInt(index);
+    }
+
+    private int getInt(int index) {
+        int idx = index % segmentSize;
+        if(idx + 4 <= segmentSize) {
+            return segments[index / segmentSize].getInt(idx);
+        }
+        return getShort(index) & 0xFFFF | (getShort(index + 2) & 0xFFFF) << 16;
+    }
+
+    @Override
+    public void writeInt(int index, int value) {
+        checkBounds(index, 4);
+        int idx = index % segmentSize;
+        if(idx + 4 <= segmentSize) {
+            segments[index / segmentSize].putInt(idx, value);
+        } else {
+            setShort(index, (short) value);
+            setShort(index + 2, (short) (value >>> 16));
+        }
+    }
+
+    @Override
+    public int limit() {
+        return limit;
+    }
+
+    @Override
+    public void limit(int newLimit) {
+        if(newLimit < 0 || newLimit > segments.length * segmentSize) {
+            throw new IndexOutOfBoundsException("Invalid limit " + newLimit);
+        }
+        limit = newLimit;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore.internal;
+
+import io.github.joealisson.mmocore.Buffer;
+import io.github.joealisson.mmocore.FrameCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @author JoeAlisson
+ */
+public final class ShortFrameCodec implements FrameCodec {
+
+    public static final FrameCodec INSTANCE = new ShortFrameCodec();
+
+    private static final int HEADER_SIZE = 2;
+    private static final int MAX_FRAME_SIZE = 0xFFFF;
+
+    private ShortFrameCodec() {
+        // singleton
+    }
+
+    @Override
+    public int minHeaderSize() {
+        return HEADER_SIZE;
+    }
+
+    @Override
+    public int maxHeaderSize() {
+        return HEADER_SIZE;
+    }
+
+    @Override
+    public int headerSize(int payloadSize) {
+        return HEADER_SIZE;
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) {
+        if(buffer.remaining() < HEADER_SIZE) {
+            return INCOMPLETE;
+        }
+        int frameSize = Short.toUnsignedInt(buffer.getShort(buffer.position()));
+        buffer.position(buffer.position() + HEADER_SIZE);
+        return Math.max(0, frameSize - HEADER_SIZE);
+    }
+
+    @Override
+    public void encode(Buffer buffer, int index, int payloadSize) {
+        int frameSize = payloadSize + HEADER_SIZE;
+        if(frameSize > MAX_FRAME_SIZE) {
+            throw new IllegalArgumentException("The frame size " + frameSize + " is greater than the max frame size " + MAX_FRAME_SIZE);
+        }
+        buffer.writeShort(index, (short) frameSize);
+    }
+}
@@ -27,12 +27,32 @@ import java.nio.ByteBuffer;
  */
 public class SinglePacketBuffer implements ReadableBuffer {
 
-    private final ByteBuffer buffer;
+    private ByteBuffer buffer;
+    private int offset;
+
+    /**
+     * Create a SinglePacketBuffer without under layer buffer. The under layer buffer must be set by {@link #wrap(ByteBuffer)}
+     */
+    public SinglePacketBuffer() {
+        // the buffer is wrapped later
+    }
 
     public SinglePacketBuffer(ByteBuffer buffer) {
         this.buffer = buffer;
     }
 
+    /**
+     * Reuse this SinglePacketBuffer as a view of the buffer.
+     *
+     * The index 0 of the view is mapped to the current position of the buffer.
+     *
+     * @param buffer the under layer buffer
+     */
+    public void wrap(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.offset = buffer.position();
+    }
+
     @Override
     public byte readByte() {
         return buffer.get();
@@ -85,42 +105,42 @@ public class SinglePacketBuffer implements ReadableBuffer {
 
     @Override
     public byte readByte(int index) {
-        return buffer.get(index);
+        return buffer.get(offset + index);
     }
 
     @Override
     public void writeByte(int index, byte value) {
-        buffer.put(index, value);
+        buffer.put(offset + index, value);
     }
 
     @Override
     public short readShort(int index) {
-        return buffer.getShort(index);
+        return buffer.getShort(offset + index);
     }
 
     @Override
     public void writeShort(int index, short value) {
-        buffer.putShort(index, value);
+        buffer.putShort(offset + index, value);
     }
 
     @Override
     public int limit() {
-        return buffer.limit();
+        return buffer.limit() - offset;
     }
 
     @Override
     public void limit(int newLimit) {
-        buffer.limit(newLimit);
+        buffer.limit(offset + newLimit);
     }
 
     @Override
     public int readInt(int index) {
-        return buffer.getInt(index);
+        return buffer.getInt(offset + index);
     }
 
     @Override
     public void writeInt(int index, int value) {
-        buffer.putInt(index, value);
+        buffer.putInt(offset + index, value);
     }
 
 }
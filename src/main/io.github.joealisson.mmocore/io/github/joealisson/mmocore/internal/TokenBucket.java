@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore.internal;
+
+/**
+ * A token bucket that limits the packets and bytes rates.
+ *
+ * The bucket holds up to one second of tokens. A packet is accepted while there are tokens available, so a packet larger
+ * than the available bytes leaves the bucket in debt until it's refilled.
+ *
+ * This class is not thread-safe, it must be used by one thread at a time.
+ *
+ * @author JoeAlisson
+ */
+public final class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private double packets;
+    private double bytes;
+    private long lastRefill;
+    private boolean started;
+
+    /**
+     * Try to consume the tokens of a packet.
+     *
+     * @param packetsPerSecond the packets rate. Not limited if less than or equal to zero
+     * @param bytesPerSecond the bytes rate. Not limited if less than or equal to zero
+     * @param size the size of the packet
+     * @param now the actual time in nanoseconds
+     * @return true if the packet is accepted
+     */
+    public boolean tryConsume(int packetsPerSecond, int bytesPerSecond, int size, long now) {
+        refill(packetsPerSecond, bytesPerSecond, now);
+        boolean packetsAvailable = packetsPerSecond <= 0 || packets >= 1;
+        boolean bytesAvailable = bytesPerSecond <= 0 || bytes > 0;
+        if(packetsAvailable && bytesAvailable) {
+            packets--;
+            bytes -= size;
+            return true;
+        }
+        return false;
+    }
+
+    private void refill(int packetsPerSecond, int bytesPerSecond, long now) {
+        if(!started) {
+            started = true;
+            packets = packetsPerSecond;
+            bytes = bytesPerSecond;
+        } else {
+            double elapsed = (now - lastRefill) / NANOS_PER_SECOND;
+            packets = Math.min(packetsPerSecond, packets + elapsed * packetsPerSecond);
+            bytes = Math.min(bytesPerSecond, bytes + elapsed * bytesPerSecond);
+        }
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore.internal;
+
+import io.github.joealisson.mmocore.Buffer;
+import io.github.joealisson.mmocore.FrameCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @author JoeAlisson
+ */
+public final class VarIntFrameCodec implements FrameCodec {
+
+    public static final FrameCodec INSTANCE = new VarIntFrameCodec();
+
+    private static final int MAX_HEADER_SIZE = 5;
+    private static final int CONTINUATION_BIT = 0x80;
+    private static final int VALUE_BITS = 0x7F;
+    private static final int LAST_GROUP_MAX = 0x07;
+
+    private VarIntFrameCodec() {
+        // singleton
+    }
+
+    @Override
+    public int minHeaderSize() {
+        return 1;
+    }
+
+    @Override
+    public int maxHeaderSize() {
+        return MAX_HEADER_SIZE;
+    }
+
+    @Override
+    public int headerSize(int payloadSize) {
+        int size = 1;
+        while ((payloadSize >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        int value = 0;
+        for (int i = 0; i < MAX_HEADER_SIZE; i++) {
+            if(position + i >= limit) {
+                return INCOMPLETE;
+            }
+            int current = Byte.toUnsignedInt(buffer.get(position + i));
+            if(i == MAX_HEADER_SIZE - 1 && current > LAST_GROUP_MAX) {
+                break;
+            }
+            value |= (current & VALUE_BITS) << (7 * i);
+            if((current & CONTINUATION_BIT) == 0) {
+                buffer.position(position + i + 1);
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint frame header");
+    }
+
+    @Override
+    public void encode(Buffer buffer, int index, int payloadSize) {
+        if(payloadSize < 0) {
+            throw new IllegalArgumentException("The payload size " + payloadSize + " can't be encoded");
+        }
+        int value = payloadSize;
+        while ((value & ~VALUE_BITS) != 0) {
+            buffer.writeByte(index++, (byte) ((value & VALUE_BITS) | CONTINUATION_BIT));
+            value >>>= 7;
+        }
+        buffer.writeByte(index, (byte) value);
+    }
+}
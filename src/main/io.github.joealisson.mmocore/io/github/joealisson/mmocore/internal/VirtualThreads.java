@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore.internal;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Provides the virtual threads support.
+ *
+ * Virtual threads are only available on Java 21 or later. This class is replaced by the Java 21 version of the multi-release jar.
+ *
+ * @author JoeAlisson
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+        // utility class
+    }
+
+    /**
+     * @return if virtual threads are supported by the running JVM
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Create an Executor that starts a new virtual thread for each task.
+     *
+     * @param name the prefix of the threads name
+     * @return the executor
+     *
+     * @throws UnsupportedOperationException if virtual threads are not supported
+     */
+    public static Executor newThreadPerTaskExecutor(String name) {
+        throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+    }
+}
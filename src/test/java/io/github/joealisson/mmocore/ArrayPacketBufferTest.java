@@ -24,6 +24,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 /**
  * @author JoeAlisson
@@ -98,4 +99,55 @@ public class ArrayPacketBufferTest {
         Assert.assertEquals(config.resourcePool.getSegmentSize(), buffer.limit());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testArrayRecycle() {
+        ResourcePool resourcePool = new ResourcePool();
+        byte[] array = resourcePool.getArray(10);
+        Assert.assertEquals(resourcePool.getSegmentSize(), array.length);
+
+        resourcePool.recycleArray(array);
+        resourcePool.recycleArray(new byte[resourcePool.getSegmentSize() - 1]);
+        Assert.assertSame(array, resourcePool.getArray(10));
+        Assert.assertNotSame(array, resourcePool.getArray(10));
+
+        resourcePool.recycleArray(array);
+        ArrayPacketBuffer buffer = ArrayPacketBuffer.pooled(10, resourcePool);
+        buffer.writeInt(10);
+        buffer.recycle();
+        Assert.assertEquals(0, buffer.limit());
+        Assert.assertSame(array, resourcePool.getArray(10));
+    }
+
+    @Test
+    public void testString() {
+        ArrayPacketBuffer buffer = new ArrayPacketBuffer(2, new ResourcePool());
+        String text = "\uDC00 Name \uD83D\uDE00";
+        byte[] encoded = text.getBytes(StandardCharsets.UTF_16LE);
+        EncodedString encodedString = EncodedString.of(text);
+        Assert.assertSame(encodedString, EncodedString.of(encodedString));
+        Assert.assertEquals(text, encodedString.toString());
+
+        buffer.writeSizedString(text);
+        buffer.writeSizedString(encodedString);
+        buffer.writeString(new StringBuilder(text));
+        buffer.mark();
+        buffer.position(0);
+
+        byte[] read = new byte[encoded.length];
+        Assert.assertEquals(text.length(), buffer.readShort());
+        buffer.readBytes(read);
+        Assert.assertArrayEquals(encoded, read);
+        Assert.assertEquals(text.length(), buffer.readShort());
+        buffer.readBytes(read);
+        Assert.assertArrayEquals(encoded, read);
+        buffer.readBytes(read);
+        Assert.assertArrayEquals(encoded, read);
+        Assert.assertEquals(0, buffer.readShort());
+        Assert.assertEquals(0, buffer.remaining());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullEncodedString() {
+        EncodedString.of(null);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+/**
+ * Sends an int value, read by {@link AsyncServerValuePacket}.
+ *
+ * @author JoeAlisson
+ */
+public class AsyncClientValuePacket extends WritablePacket<AsyncClient> {
+
+    private final int value;
+
+    public AsyncClientValuePacket(int value) {
+        this.value = value;
+    }
+
+    @Override
+    protected boolean write(AsyncClient client, WritableBuffer buffer) {
+        buffer.writeInt(value);
+        return true;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import java.util.Queue;
+
+/**
+ * Reads the int value sent by {@link AsyncClientValuePacket} and adds it to the received values when executed.
+ *
+ * @author JoeAlisson
+ */
+public class AsyncServerValuePacket extends PooledReadablePacket<AsyncClient> {
+
+    private final Queue<Integer> received;
+    int value;
+
+    public AsyncServerValuePacket(Queue<Integer> received) {
+        this.received = received;
+    }
+
+    @Override
+    protected boolean read() {
+        value = readInt();
+        return true;
+    }
+
+    @Override
+    protected void execute() {
+        received.add(value);
+    }
+
+    @Override
+    protected void reset() {
+        value = 0;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.BoundedArrayQueue;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author JoeAlisson
+ */
+public class BoundedArrayQueueTest {
+
+    @Test
+    public void testOfferAndPoll() {
+        BoundedArrayQueue<Integer> queue = new BoundedArrayQueue<>(3);
+        Assert.assertEquals(4, queue.capacity());
+        Assert.assertNull(queue.poll());
+
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(queue.offer(i));
+        }
+        Assert.assertFalse(queue.offer(5));
+        Assert.assertEquals(4, queue.size());
+
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(i, queue.poll().intValue());
+        }
+        Assert.assertNull(queue.poll());
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testOfferNull() {
+        new BoundedArrayQueue<>(2).offer(null);
+    }
+
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        BoundedArrayQueue<Integer> queue = new BoundedArrayQueue<>(64);
+        Set<Integer> consumed = ConcurrentHashMap.newKeySet();
+        int producers = 4;
+        int perProducer = 10_000;
+        CountDownLatch done = new CountDownLatch(producers * 2);
+        ExecutorService executor = Executors.newFixedThreadPool(producers * 2);
+        try {
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                executor.execute(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!queue.offer(base + i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    done.countDown();
+                });
+                executor.execute(() -> {
+                    int count = 0;
+                    while (count < perProducer) {
+                        Integer value = queue.poll();
+                        if (value != null) {
+                            Assert.assertTrue(consumed.add(value));
+                            count++;
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+            Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(producers * perProducer, consumed.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
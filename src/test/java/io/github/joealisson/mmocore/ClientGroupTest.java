@@ -0,0 +1,260 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.ArrayPacketBuffer;
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author JoeAlisson
+ */
+public class ClientGroupTest {
+
+    private static final int CLIENTS = 4;
+    private static final int PACKETS = 100;
+
+    @Test
+    public void testBroadcast() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9094);
+        ClientGroup<AsyncClient> group = new ClientGroup<>();
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, (Connection<AsyncClient> connection) -> {
+            AsyncClient client = new AsyncClient(connection);
+            group.add(client);
+            return client;
+        }, (buffer, client) -> null, Runnable::run).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            List<Queue<Integer>> received = new ArrayList<>();
+            List<AsyncClient> receivers = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                Queue<Integer> values = new ConcurrentLinkedQueue<>();
+                ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(values));
+                received.add(values);
+                receivers.add(Connector.create(AsyncClient::new, (buffer, client) -> pool.get(), Runnable::run).connect(socketAddress));
+            }
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> group.size() == CLIENTS);
+
+            AtomicInteger writes = new AtomicInteger();
+            for (int i = 0; i < PACKETS; i++) {
+                group.broadcast(new CountingPacket(i, writes));
+            }
+
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.stream().allMatch(values -> values.size() == PACKETS));
+            Assert.assertEquals(PACKETS, writes.get());
+            for (Queue<Integer> values : received) {
+                int expected = 0;
+                for (Integer value : values) {
+                    Assert.assertEquals(expected++, value.intValue());
+                }
+            }
+
+            receivers.get(0).close();
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> {
+                group.broadcast(new CountingPacket(PACKETS, writes));
+                return group.size() == CLIENTS - 1;
+            });
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testBroadcastCollection() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9094);
+        Queue<Integer> received = new ConcurrentLinkedQueue<>();
+        ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(received));
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> pool.get(),
+                Runnable::run).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            List<AsyncClient> clients = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(Connector.create(AsyncClient::new, null, null).connect(socketAddress));
+            }
+
+            AtomicInteger writes = new AtomicInteger();
+            ClientGroup.broadcast(clients, new CountingPacket(7, writes));
+
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> received.size() == CLIENTS);
+            Assert.assertEquals(1, writes.get());
+            for (Integer value : received) {
+                Assert.assertEquals(7, value.intValue());
+            }
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testPassThroughBroadcast() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9094);
+        ClientGroup<AsyncClient> group = new ClientGroup<>();
+        AtomicInteger encryptions = new AtomicInteger();
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, (Connection<AsyncClient> connection) -> {
+            AsyncClient client = new PassThroughClient(connection, encryptions);
+            group.add(client);
+            return client;
+        }, (buffer, client) -> null, Runnable::run).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            List<Queue<Integer>> received = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                Queue<Integer> values = new ConcurrentLinkedQueue<>();
+                ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(values));
+                received.add(values);
+                Connector.create(AsyncClient::new, (buffer, client) -> pool.get(), Runnable::run).connect(socketAddress);
+            }
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> group.size() == CLIENTS);
+
+            AtomicInteger writes = new AtomicInteger();
+            for (int i = 0; i < PACKETS; i++) {
+                group.broadcast(new CountingPacket(i, writes));
+            }
+
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.stream().allMatch(values -> values.size() == PACKETS));
+            Assert.assertEquals(PACKETS, writes.get());
+            Assert.assertEquals(0, encryptions.get());
+            for (Queue<Integer> values : received) {
+                int expected = 0;
+                for (Integer value : values) {
+                    Assert.assertEquals(expected++, value.intValue());
+                }
+            }
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testBroadcastCacheRelease() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9094);
+        Queue<Integer> received = new ConcurrentLinkedQueue<>();
+        ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(received));
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> pool.get(),
+                Runnable::run).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            List<AsyncClient> clients = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(Connector.create(AsyncClient::new, null, null).connect(socketAddress));
+            }
+
+            AtomicInteger writes = new AtomicInteger();
+            CountingPacket packet = new CountingPacket(5, writes);
+            packet.openBroadcast();
+            for (AsyncClient client : clients) {
+                client.sendPacket(packet);
+            }
+            packet.closeBroadcast();
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> received.size() == CLIENTS);
+            // the broadcast scope holds the cache while the clients write the packet
+            Assert.assertEquals(1, writes.get());
+
+            // the scope was closed and all recipients have written the packet, so the cache was released and the packet is written again
+            clients.get(0).sendPacket(packet);
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> received.size() == CLIENTS + 1);
+            Assert.assertEquals(2, writes.get());
+            for (Integer value : received) {
+                Assert.assertEquals(5, value.intValue());
+            }
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testSharedFrameRelease() {
+        ResourcePool resourcePool = new ResourcePool();
+        ArrayPacketBuffer data = new ArrayPacketBuffer(64, resourcePool);
+        FrameCodec codec = FrameCodec.shortLE();
+        data.position(codec.maxHeaderSize());
+        data.writeInt(10);
+        data.mark();
+
+        SharedFrame frame = SharedFrame.of(data, codec, resourcePool);
+        Assert.assertNotNull(frame);
+        Assert.assertEquals(6, frame.size());
+        Assert.assertTrue(frame.isEncodedBy(codec));
+
+        ByteBuffer[] first = frame.views();
+        ByteBuffer[] second = frame.views();
+        first[0].position(first[0].limit());
+        Assert.assertEquals(6, second[0].remaining());
+        Assert.assertTrue(first[0].isReadOnly());
+        Assert.assertEquals(6, second[0].getShort(0));
+
+        frame.retain();
+        Assert.assertEquals(2, frame.references());
+        frame.release();
+        frame.release();
+        Assert.assertEquals(0, frame.references());
+    }
+
+    private static class PassThroughClient extends AsyncClient {
+
+        private final AtomicInteger encryptions;
+
+        PassThroughClient(Connection<AsyncClient> connection, AtomicInteger encryptions) {
+            super(connection);
+            this.encryptions = encryptions;
+        }
+
+        @Override
+        protected boolean isPassThroughCipher() {
+            return true;
+        }
+
+        @Override
+        public boolean encrypt(Buffer data, int offset, int size) {
+            encryptions.incrementAndGet();
+            return true;
+        }
+    }
+
+    private static class CountingPacket extends WritablePacket<AsyncClient> {
+
+        private final int value;
+        private final AtomicInteger writes;
+
+        CountingPacket(int value, AtomicInteger writes) {
+            this.value = value;
+            this.writes = writes;
+        }
+
+        @Override
+        protected boolean write(AsyncClient client, WritableBuffer buffer) {
+            writes.incrementAndGet();
+            buffer.writeInt(value);
+            return true;
+        }
+    }
+}
@@ -106,6 +106,45 @@ public class CommunicationTest {
         }
     }
 
+    @Test
+    public void testIntegrationWithReadAhead() throws IOException, ExecutionException, InterruptedException {
+        connectionHandler = builder.readAheadBufferSize(512).build();
+        connectionHandler.start();
+
+        AsyncClient client = connector.readAheadBufferSize(256).connect("localhost", 9090);
+        client.sendPacket(new AsyncClientPingPacket());
+
+        Awaitility.waitAtMost(10, TimeUnit.SECONDS).untilTrue(shutdown);
+
+        connectionHandler.shutdown();
+        if(!success) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testReadAheadMultiplePacketsPerRead() throws IOException, ExecutionException, InterruptedException {
+        PACKET_SENT_TO_SUCCESS = 100;
+        packetsSent.set(0);
+        connectionHandler = builder.readAheadBufferSize(64).build();
+        connectionHandler.start();
+
+        AsyncClient client = connector.connect("localhost", 9090);
+        AsyncClientBroadcastPacket[] packets = new AsyncClientBroadcastPacket[PACKET_SENT_TO_SUCCESS];
+        for (int i = 0; i < packets.length; i++) {
+            packets[i] = new AsyncClientBroadcastPacket();
+        }
+        client.sendPackets(packets);
+
+        Awaitility.waitAtMost(10, TimeUnit.SECONDS).untilTrue(shutdown);
+
+        client.close();
+        connectionHandler.shutdown();
+        if(packetsSent.get() != packets.length) {
+            fail();
+        }
+    }
+
     @Test
     public void testBroadcast() throws IOException, ExecutionException, InterruptedException {
         connectionHandler = builder.build();
@@ -117,11 +156,12 @@ public class CommunicationTest {
         }
 
         AsyncClientBroadcastPacket packet = new AsyncClientBroadcastPacket();
-        packet.sendInBroadcast(true);
+        packet.openBroadcast();
 
         for (AsyncClient client : clients) {
             client.sendPacket(packet);
         }
+        packet.closeBroadcast();
 
         Awaitility.waitAtMost(10, TimeUnit.SECONDS).untilTrue(shutdown);
 
@@ -196,6 +236,30 @@ public class CommunicationTest {
         }
     }
 
+    @Test
+    public void testReadingThrottlingWithReadAhead() throws IOException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1",9090);
+        ConnectionHandler<ReadingThrottlingHelper.RTClient> handler = ConnectionBuilder.create(socketAddress, ReadingThrottlingHelper::create, ReadingThrottlingHelper::handlePacket, ReadingThrottlingHelper::execute)
+                .disableAutoReading(true).readAheadBufferSize(1024).build();
+        try {
+            handler.start();
+            ReadingThrottlingHelper.RTClient client = Connector.create(ReadingThrottlingHelper.RTClient::new, ReadingThrottlingHelper::handlePacket, ReadingThrottlingHelper::execute).disableAutoReading(true).connect(socketAddress);
+
+            client.writePackets(List.of(ReadingThrottlingHelper.ping(), ReadingThrottlingHelper.ping2nd()));
+            ReadingThrottlingHelper.RTClient receivingClient = ReadingThrottlingHelper.lastClient;
+
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).untilTrue(receivingClient.readableAgain);
+            Assert.assertTrue(receivingClient.hasMinimumTimeBetweenPackets());
+
+            client.close();
+            receivingClient.close();
+        } catch (ExecutionException | InterruptedException | IOException e) {
+            e.printStackTrace();
+        } finally {
+            handler.shutdown();
+        }
+    }
+
     @Test
     public void testFairnessController() throws IOException, ExecutionException, InterruptedException {
         GenericClientHandler handler = new GenericClientHandler();
@@ -22,10 +22,13 @@ import org.junit.After;
 import org.junit.Test;
 
 import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static java.lang.Math.max;
 import static java.lang.Runtime.getRuntime;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -82,6 +85,17 @@ public class ConfigurationTest {
        Connector.create(AsyncClient::new, null, null).threadPriority(100);
     }
 
+    @Test
+    public void testSchedulerNotRecreatedAfterShutdown() throws InterruptedException {
+        ConnectionConfig config = new ConnectionConfig(null);
+        CountDownLatch executed = new CountDownLatch(1);
+        assertTrue(config.schedule(executed::countDown, 0, TimeUnit.MILLISECONDS));
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+
+        config.shutdownScheduler();
+        assertFalse(config.schedule(() -> { }, 0, TimeUnit.MILLISECONDS));
+    }
+
     @After
     public void tearDown() {
         System.setProperty("async-mmocore.configurationFile", "");
@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author JoeAlisson
+ */
+public class CorkTest {
+
+    private static final int PACKETS = 50;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeDeadline() {
+        Connector.create(AsyncClient::new, null, null).corkDeadline(-1);
+    }
+
+    @Test
+    public void testCorkAndFlush() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9093);
+        Queue<Integer> received = new ConcurrentLinkedQueue<>();
+        ConnectionHandler<AsyncClient> handler = valueServer(socketAddress, received).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).connect(socketAddress);
+            client.cork();
+            client.cork();
+            for (int i = 0; i < PACKETS; i++) {
+                client.sendPacket(new AsyncClientValuePacket(i));
+            }
+            Assert.assertTrue(client.isCorked());
+            client.flush();
+            Awaitility.await().during(200, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS).until(received::isEmpty);
+            Assert.assertEquals(PACKETS, client.getEstimateQueueSize());
+
+            client.flush();
+            Assert.assertFalse(client.isCorked());
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> received.size() == PACKETS);
+            assertOrder(received);
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testCorkDeadline() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9093);
+        Queue<Integer> received = new ConcurrentLinkedQueue<>();
+        ConnectionHandler<AsyncClient> handler = valueServer(socketAddress, received).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).corkDeadline(100).connect(socketAddress);
+            client.cork();
+            for (int i = 0; i < PACKETS; i++) {
+                client.sendPacket(new AsyncClientValuePacket(i));
+            }
+
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> received.size() == PACKETS);
+            assertOrder(received);
+            Assert.assertFalse(client.isCorked());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testFlushAfterExecution() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9093);
+        Queue<Integer> replies = new ConcurrentLinkedQueue<>();
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> new ReplyPacket(),
+                Runnable::run).flushAfterExecution(true).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(replies));
+            AsyncClient client = Connector.create(AsyncClient::new, (buffer, c) -> pool.get(), Runnable::run).connect(socketAddress);
+            client.sendPacket(new AsyncClientValuePacket(PACKETS));
+
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> replies.size() == PACKETS);
+            assertOrder(replies);
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    private ConnectionBuilder<AsyncClient> valueServer(InetSocketAddress socketAddress, Queue<Integer> received) {
+        ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(received));
+        return ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> pool.get(), Runnable::run).shutdownWaitTime(100);
+    }
+
+    private void assertOrder(Queue<Integer> values) {
+        int expected = 0;
+        for (Integer value : values) {
+            Assert.assertEquals(expected++, value.intValue());
+        }
+    }
+
+    private static class ReplyPacket extends ReadablePacket<AsyncClient> {
+
+        private int replies;
+
+        @Override
+        protected boolean read() {
+            replies = readInt();
+            return true;
+        }
+
+        @Override
+        public void run() {
+            Assert.assertTrue(client.isCorked());
+            for (int i = 0; i < replies; i++) {
+                client.sendPacket(new AsyncClientValuePacket(i));
+            }
+        }
+    }
+}
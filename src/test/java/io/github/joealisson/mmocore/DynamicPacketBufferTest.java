@@ -24,6 +24,8 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 
 /**
  * @author JoeAlisson
@@ -228,4 +230,43 @@ public class DynamicPacketBufferTest {
             Assert.assertArrayEquals(data, read);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSplitString() {
+        ConnectionConfig config = new ConnectionConfig(null);
+        config.complete();
+        ResourcePool resourcePool = config.resourcePool;
+        String text = "Name \uD83D\uDE00 \uD800 text";
+        byte[] encoded = text.getBytes(StandardCharsets.UTF_16LE);
+
+        for (int prefix = 0; prefix <= 1; prefix++) {
+            for (int i = 1; i <= 9; i++) {
+                DynamicPacketBuffer packetBuffer = new DynamicPacketBuffer(ByteBuffer.allocate(i).order(ByteOrder.LITTLE_ENDIAN), resourcePool);
+                for (int j = 0; j < prefix; j++) {
+                    packetBuffer.writeByte(7);
+                }
+                packetBuffer.writeString(text);
+                packetBuffer.writeSizedString(text);
+                packetBuffer.writeString(EncodedString.of(text));
+
+                byte[] read = new byte[encoded.length];
+                int index = prefix;
+                packetBuffer.readBytes(index, read);
+                Assert.assertArrayEquals(encoded, read);
+                index += encoded.length;
+                Assert.assertEquals(0, packetBuffer.readShort(index));
+                index += 2;
+                Assert.assertEquals(text.length(), packetBuffer.readShort(index));
+                index += 2;
+                packetBuffer.readBytes(index, read);
+                Assert.assertArrayEquals(encoded, read);
+                index += encoded.length;
+                packetBuffer.readBytes(index, read);
+                Assert.assertArrayEquals(encoded, read);
+                index += encoded.length;
+                Assert.assertEquals(0, packetBuffer.readShort(index));
+                Assert.assertEquals(index + 2, packetBuffer.position());
+            }
+        }
+    }
+}
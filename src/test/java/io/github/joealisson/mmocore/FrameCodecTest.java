@@ -0,0 +1,155 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.SinglePacketBuffer;
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author JoeAlisson
+ */
+public class FrameCodecTest {
+
+    @Test
+    public void testShortCodec() {
+        FrameCodec codec = FrameCodec.shortLE();
+        ByteBuffer buffer = encode(codec, 300);
+        Assert.assertEquals(2, buffer.remaining());
+        Assert.assertEquals(302, buffer.getShort(0));
+        Assert.assertEquals(300, codec.decode(buffer));
+        Assert.assertEquals(2, buffer.position());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortCodecOverflow() {
+        encode(FrameCodec.shortLE(), 0xFFFF);
+    }
+
+    @Test
+    public void testIntCodec() {
+        FrameCodec codec = FrameCodec.intLE();
+        ByteBuffer buffer = encode(codec, 100_000);
+        Assert.assertEquals(4, buffer.remaining());
+        Assert.assertEquals(100_004, buffer.getInt(0));
+        Assert.assertEquals(100_000, codec.decode(buffer));
+        Assert.assertEquals(4, buffer.position());
+    }
+
+    @Test
+    public void testVarIntCodec() {
+        FrameCodec codec = FrameCodec.varInt();
+        int[] sizes = { 0, 1, 127, 128, 16383, 16384, 2097151, 2097152, Integer.MAX_VALUE };
+        int[] headerSizes = { 1, 1, 1, 2, 2, 3, 3, 4, 5 };
+        for (int i = 0; i < sizes.length; i++) {
+            ByteBuffer buffer = encode(codec, sizes[i]);
+            Assert.assertEquals(headerSizes[i], buffer.remaining());
+            Assert.assertEquals(sizes[i], codec.decode(buffer));
+            Assert.assertEquals(headerSizes[i], buffer.position());
+        }
+    }
+
+    @Test
+    public void testIncompleteHeader() {
+        ByteBuffer buffer = encode(FrameCodec.varInt(), 16384);
+        buffer.limit(2);
+        Assert.assertEquals(FrameCodec.INCOMPLETE, FrameCodec.varInt().decode(buffer));
+        Assert.assertEquals(0, buffer.position());
+
+        buffer = ByteBuffer.allocate(3).order(ByteOrder.LITTLE_ENDIAN).put((byte) 10).flip();
+        Assert.assertEquals(FrameCodec.INCOMPLETE, FrameCodec.shortLE().decode(buffer));
+        Assert.assertEquals(FrameCodec.INCOMPLETE, FrameCodec.intLE().decode(buffer));
+        Assert.assertEquals(0, buffer.position());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMalformedVarInt() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F });
+        FrameCodec.varInt().decode(buffer);
+    }
+
+    @Test
+    public void testLargePacketWithIntCodec() throws IOException, ExecutionException, InterruptedException {
+        testLargePacket(FrameCodec.intLE(), 0);
+    }
+
+    @Test
+    public void testLargePacketWithVarIntCodec() throws IOException, ExecutionException, InterruptedException {
+        testLargePacket(FrameCodec.varInt(), 0);
+    }
+
+    @Test
+    public void testLargePacketWithVarIntCodecAndReadAhead() throws IOException, ExecutionException, InterruptedException {
+        testLargePacket(FrameCodec.varInt(), 1024);
+    }
+
+    private void testLargePacket(FrameCodec codec, int readAheadSize) throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+        AtomicInteger received = new AtomicInteger();
+        AtomicInteger receivedSize = new AtomicInteger();
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> {
+            receivedSize.set(buffer.remaining());
+            received.incrementAndGet();
+            return null;
+        }, null).frameCodec(codec).readAheadBufferSize(readAheadSize).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).frameCodec(codec).connect(socketAddress);
+            client.sendPacket(new SizedPacket(100));
+            client.sendPacket(new SizedPacket(100_000));
+            client.sendPacket(new SizedPacket(10));
+
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.get() == 3);
+            Assert.assertEquals(10, receivedSize.get());
+            Assert.assertTrue(client.isConnected());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    private ByteBuffer encode(FrameCodec codec, int payloadSize) {
+        ByteBuffer buffer = ByteBuffer.allocate(codec.maxHeaderSize()).order(ByteOrder.LITTLE_ENDIAN);
+        codec.encode(new SinglePacketBuffer(buffer), 0, payloadSize);
+        return buffer.limit(codec.headerSize(payloadSize));
+    }
+
+    static class SizedPacket extends WritablePacket<AsyncClient> {
+
+        private final int size;
+
+        SizedPacket(int size) {
+            this.size = size;
+        }
+
+        @Override
+        protected boolean write(AsyncClient client, WritableBuffer buffer) {
+            buffer.writeBytes(new byte[size]);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author JoeAlisson
+ */
+public class ImmutableWritablePacketTest {
+
+    private static final int CLIENTS = 4;
+    private static final int SENDS = 50;
+
+    @Test
+    public void testSerializedOnce() {
+        AtomicInteger writes = new AtomicInteger();
+        ImmutableWritablePacket<AsyncClient> packet = ImmutableWritablePacket.of(new ConstantPacket(9, writes));
+        Assert.assertEquals(1, writes.get());
+        Assert.assertEquals(4, packet.size());
+        Assert.assertSame(packet, ImmutableWritablePacket.of(packet));
+        Assert.assertEquals(PacketPriority.HIGH, packet.getPriority());
+        Assert.assertEquals(ConstantPacket.class.getSimpleName(), packet.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullPacket() {
+        ImmutableWritablePacket.of(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotWrittenPacket() {
+        ImmutableWritablePacket.of(new WritablePacket<AsyncClient>() {
+            @Override
+            protected boolean write(AsyncClient client, WritableBuffer buffer) {
+                return false;
+            }
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPacketNeedingClient() {
+        ImmutableWritablePacket.of(new ClientPacket());
+    }
+
+    @Test
+    public void testSerializedWithClient() throws IOException {
+        try(AsynchronousSocketChannel channel = AsynchronousSocketChannel.open()) {
+            AsyncClient client = new AsyncClient(new Connection<>(channel, null, null, new ConnectionConfig(null)));
+            ImmutableWritablePacket<AsyncClient> packet = ImmutableWritablePacket.of(new ClientPacket(), client);
+            Assert.assertEquals(1, packet.size());
+            Assert.assertSame(packet, ImmutableWritablePacket.of(packet, client));
+        }
+    }
+
+    @Test
+    public void testConcurrentSend() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9097);
+        Queue<Integer> received = new ConcurrentLinkedQueue<>();
+        ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(received));
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> pool.get(),
+                Runnable::run).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            List<AsyncClient> clients = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(Connector.create(AsyncClient::new, null, null).connect(socketAddress));
+            }
+
+            AtomicInteger writes = new AtomicInteger();
+            ImmutableWritablePacket<AsyncClient> packet = ImmutableWritablePacket.of(new ConstantPacket(3, writes));
+            List<Thread> senders = new ArrayList<>();
+            for (AsyncClient client : clients) {
+                Thread sender = new Thread(() -> {
+                    for (int i = 0; i < SENDS; i++) {
+                        client.sendPacket(packet);
+                    }
+                });
+                senders.add(sender);
+                sender.start();
+            }
+            for (Thread sender : senders) {
+                sender.join();
+            }
+            ClientGroup.broadcast(clients, packet);
+
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == CLIENTS * (SENDS + 1));
+            Assert.assertEquals(1, writes.get());
+            for (Integer value : received) {
+                Assert.assertEquals(3, value.intValue());
+            }
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testPassThroughBroadcast() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9097);
+        ClientGroup<AsyncClient> group = new ClientGroup<>();
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, (Connection<AsyncClient> connection) -> {
+            AsyncClient client = new PassThroughClient(connection);
+            group.add(client);
+            return client;
+        }, (buffer, client) -> null, Runnable::run).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            Queue<Integer> received = new ConcurrentLinkedQueue<>();
+            ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(received));
+            for (int i = 0; i < CLIENTS; i++) {
+                Connector.create(AsyncClient::new, (buffer, client) -> pool.get(), Runnable::run).connect(socketAddress);
+            }
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> group.size() == CLIENTS);
+
+            AtomicInteger writes = new AtomicInteger();
+            ImmutableWritablePacket<AsyncClient> packet = ImmutableWritablePacket.of(new ConstantPacket(11, writes));
+            for (int i = 0; i < SENDS; i++) {
+                group.broadcast(packet);
+            }
+
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == CLIENTS * SENDS);
+            Assert.assertEquals(1, writes.get());
+            for (Integer value : received) {
+                Assert.assertEquals(11, value.intValue());
+            }
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    private static class PassThroughClient extends AsyncClient {
+
+        PassThroughClient(Connection<AsyncClient> connection) {
+            super(connection);
+        }
+
+        @Override
+        protected boolean isPassThroughCipher() {
+            return true;
+        }
+    }
+
+    private static class ClientPacket extends WritablePacket<AsyncClient> {
+
+        @Override
+        protected boolean write(AsyncClient client, WritableBuffer buffer) {
+            buffer.writeByte(client.isConnected() ? 1 : 0);
+            return true;
+        }
+    }
+
+    private static class ConstantPacket extends WritablePacket<AsyncClient> {
+
+        private final int value;
+        private final AtomicInteger writes;
+
+        ConstantPacket(int value, AtomicInteger writes) {
+            this.value = value;
+            this.writes = writes;
+        }
+
+        @Override
+        public PacketPriority getPriority() {
+            return PacketPriority.HIGH;
+        }
+
+        @Override
+        protected boolean write(AsyncClient client, WritableBuffer buffer) {
+            writes.incrementAndGet();
+            buffer.writeInt(value);
+            return true;
+        }
+    }
+}
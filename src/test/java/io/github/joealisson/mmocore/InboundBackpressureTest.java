@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author JoeAlisson
+ */
+public class InboundBackpressureTest {
+
+    private static final int PACKETS = 50;
+    private static final int LOW_WATERMARK = 2;
+    private static final int HIGH_WATERMARK = 5;
+
+    private final InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+    private final PendingPacketExecutor pending = new PendingPacketExecutor();
+    private final AtomicInteger executed = new AtomicInteger();
+    private final AtomicReference<AsyncClient> serverClient = new AtomicReference<>();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWatermarks() {
+        ConnectionBuilder.create(socketAddress, AsyncClient::new, null, null).inboundBackpressure(5, 5);
+    }
+
+    @Test
+    public void testBackpressure() throws IOException, ExecutionException, InterruptedException {
+        testBackpressure(0, false);
+    }
+
+    @Test
+    public void testBackpressureWithReadAhead() throws IOException, ExecutionException, InterruptedException {
+        testBackpressure(256, false);
+    }
+
+    @Test
+    public void testBackpressureWithPooledPackets() throws IOException, ExecutionException, InterruptedException {
+        testBackpressure(256, true);
+    }
+
+    private void testBackpressure(int readAheadSize, boolean pooled) throws IOException, ExecutionException, InterruptedException {
+        Queue<Integer> values = new ConcurrentLinkedQueue<>();
+        ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(values));
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, this::createClient, (buffer, client) -> {
+            if(pooled) {
+                return pool.get();
+            }
+            return new CountPacket();
+        }, pending).inboundBackpressure(LOW_WATERMARK, HIGH_WATERMARK).readAheadBufferSize(readAheadSize).shutdownWaitTime(100).build();
+
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).connect(socketAddress);
+            for (int i = 0; i < PACKETS; i++) {
+                client.sendPacket(new AsyncClientValuePacket(i));
+            }
+
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> pending.size() == HIGH_WATERMARK);
+            Awaitility.await().during(100, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS).until(() -> pending.size() == HIGH_WATERMARK);
+            Assert.assertEquals(HIGH_WATERMARK, serverClient.get().getInFlightPackets());
+
+            Assert.assertTrue(pending.runNext());
+            Assert.assertTrue(pending.runNext());
+            Awaitility.await().during(100, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS).until(() -> pending.size() == HIGH_WATERMARK - 2);
+
+            Assert.assertTrue(pending.runNext());
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> pending.size() == HIGH_WATERMARK);
+
+            int executedPackets = 3 + pending.runPending(PACKETS - 3, 10, TimeUnit.SECONDS, () -> Assert.assertTrue(pending.size() <= HIGH_WATERMARK));
+            Assert.assertEquals(PACKETS, executedPackets);
+            Assert.assertEquals(0, serverClient.get().getInFlightPackets());
+            Assert.assertEquals(pooled ? 0 : PACKETS, executed.get());
+            Assert.assertEquals(pooled ? PACKETS : 0, values.size());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    private AsyncClient createClient(Connection<AsyncClient> connection) {
+        AsyncClient client = new AsyncClient(connection);
+        serverClient.set(client);
+        return client;
+    }
+
+    private class CountPacket extends ReadablePacket<AsyncClient> {
+
+        @Override
+        protected boolean read() {
+            return true;
+        }
+
+        @Override
+        public void run() {
+            executed.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.LongObjectMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * @author JoeAlisson
+ */
+public class LongObjectMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        LongObjectMap<String> map = new LongObjectMap<>(2);
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.put(1, "a"));
+        Assert.assertNull(map.put(-5, "b"));
+        Assert.assertNull(map.put(Long.MAX_VALUE, "c"));
+        Assert.assertEquals("a", map.put(1, "d"));
+        Assert.assertEquals(3, map.size());
+
+        Assert.assertEquals("d", map.get(1));
+        Assert.assertEquals("b", map.get(-5));
+        Assert.assertEquals("c", map.get(Long.MAX_VALUE));
+        Assert.assertNull(map.get(2));
+
+        Assert.assertEquals("b", map.remove(-5));
+        Assert.assertNull(map.remove(-5));
+        Assert.assertNull(map.get(-5));
+        Assert.assertEquals(2, map.size());
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get(1));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullValue() {
+        new LongObjectMap<String>(4).put(1, null);
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        LongObjectMap<Long> map = new LongObjectMap<>(4);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(512);
+            if(random.nextBoolean()) {
+                Assert.assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            } else {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+        Assert.assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 512; key++) {
+            Assert.assertEquals(expected.get(key), map.get(key));
+        }
+    }
+}
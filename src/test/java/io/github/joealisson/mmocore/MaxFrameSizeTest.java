@@ -0,0 +1,142 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.FrameCodecTest.SizedPacket;
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author JoeAlisson
+ */
+public class MaxFrameSizeTest {
+
+    private final InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+    private final Queue<Integer> receivedSizes = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<AsyncClient> serverClient = new AtomicReference<>();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullPolicy() {
+        ConnectionBuilder.create(socketAddress, AsyncClient::new, null, null).maxFrameSize(100, null);
+    }
+
+    @Test
+    public void testSkipOversizedFrame() throws IOException, ExecutionException, InterruptedException {
+        testSkipOversizedFrame(0);
+    }
+
+    @Test
+    public void testSkipOversizedFrameWithReadAhead() throws IOException, ExecutionException, InterruptedException {
+        testSkipOversizedFrame(256);
+    }
+
+    private void testSkipOversizedFrame(int readAheadSize) throws IOException, ExecutionException, InterruptedException {
+        ConnectionHandler<AsyncClient> handler = builder().maxFrameSize(100, OversizedFramePolicy.SKIP).readAheadBufferSize(readAheadSize).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).connect(socketAddress);
+            client.sendPacket(new SizedPacket(50));
+            client.sendPacket(new SizedPacket(1000));
+            client.sendPacket(new SizedPacket(101));
+            client.sendPacket(new SizedPacket(20));
+
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> receivedSizes.size() == 2);
+            Assert.assertArrayEquals(new Integer[] { 50, 20 }, receivedSizes.toArray(new Integer[0]));
+            Assert.assertEquals(2, handler.oversizedFrameCount());
+            Assert.assertTrue(serverClient.get().isConnected());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testDisconnectOnOversizedFrame() throws IOException, ExecutionException, InterruptedException {
+        ConnectionHandler<AsyncClient> handler = builder().maxFrameSize(100, OversizedFramePolicy.DISCONNECT).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).connect(socketAddress);
+            client.sendPacket(new SizedPacket(50));
+            client.sendPacket(new SizedPacket(1000));
+            client.sendPacket(new SizedPacket(20));
+
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> serverClient.get() != null && !serverClient.get().isConnected());
+            Assert.assertArrayEquals(new Integer[] { 50 }, receivedSizes.toArray(new Integer[0]));
+            Assert.assertEquals(1, handler.oversizedFrameCount());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testDefaultMaxFrameSize() throws IOException, ExecutionException, InterruptedException {
+        ConnectionHandler<AsyncClient> handler = builder().build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).connect(socketAddress);
+            client.sendPacket(new SizedPacket(50));
+            client.sendPacket(new SizedPacket(10_000));
+            client.sendPacket(new SizedPacket(20));
+
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> receivedSizes.size() == 3);
+            Assert.assertArrayEquals(new Integer[] { 50, 10_000, 20 }, receivedSizes.toArray(new Integer[0]));
+            Assert.assertEquals(0, handler.oversizedFrameCount());
+            Assert.assertTrue(serverClient.get().isConnected());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testClientMaxFrameSizeOverride() throws IOException, ExecutionException, InterruptedException {
+        ConnectionHandler<AsyncClient> handler = builder().maxFrameSize(100, OversizedFramePolicy.SKIP).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).connect(socketAddress);
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> serverClient.get() != null);
+            serverClient.get().setMaxFrameSize(2000);
+            client.sendPacket(new SizedPacket(1000));
+
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> receivedSizes.size() == 1);
+            Assert.assertEquals(1000, receivedSizes.peek().intValue());
+            Assert.assertEquals(0, handler.oversizedFrameCount());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    private ConnectionBuilder<AsyncClient> builder() {
+        return ConnectionBuilder.create(socketAddress, (Connection<AsyncClient> connection) -> {
+            AsyncClient client = new AsyncClient(connection);
+            serverClient.set(client);
+            return client;
+        }, (buffer, client) -> {
+            receivedSizes.add(buffer.remaining());
+            return null;
+        }, null).shutdownWaitTime(100);
+    }
+}
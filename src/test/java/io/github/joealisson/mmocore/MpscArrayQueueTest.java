@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.MpscArrayQueue;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author JoeAlisson
+ */
+public class MpscArrayQueueTest {
+
+    @Test
+    public void testOfferAndPoll() {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(3);
+        Assert.assertNull(queue.poll());
+        Assert.assertTrue(queue.isEmpty());
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(queue.offer(i));
+        }
+        Assert.assertEquals(10, queue.size());
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(i, queue.poll().intValue());
+        }
+        Assert.assertNull(queue.poll());
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testCapacity() {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(2, 3);
+        Assert.assertEquals(3, queue.capacity());
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(queue.offer(i));
+        }
+        Assert.assertFalse(queue.offer(3));
+        Assert.assertEquals(0, queue.poll().intValue());
+        Assert.assertTrue(queue.offer(3));
+        Assert.assertEquals(3, queue.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new MpscArrayQueue<>(2, 0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testOfferNull() {
+        new MpscArrayQueue<>(2).offer(null);
+    }
+
+    @Test
+    public void testRemoveFirst() {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(2);
+        for (int i = 0; i < 6; i++) {
+            queue.offer(i);
+        }
+        Assert.assertEquals(0, queue.poll().intValue());
+        Assert.assertEquals(3, queue.removeFirst(value -> value % 3 == 0).intValue());
+        Assert.assertNull(queue.removeFirst(value -> value > 10));
+        Assert.assertEquals("4", queue.removeFirstMatching(value -> value > 3 ? String.valueOf(value) : null));
+        Assert.assertEquals(3, queue.size());
+
+        Assert.assertEquals(1, queue.poll().intValue());
+        Assert.assertEquals(2, queue.poll().intValue());
+        Assert.assertEquals(5, queue.poll().intValue());
+        Assert.assertNull(queue.poll());
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testHasAvailable() {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(2);
+        Assert.assertFalse(queue.hasAvailable());
+        for (int i = 0; i < 5; i++) {
+            queue.offer(i);
+        }
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(queue.hasAvailable());
+            Assert.assertEquals(i, queue.poll().intValue());
+        }
+        Assert.assertFalse(queue.hasAvailable());
+
+        queue.offer(5);
+        Assert.assertNotNull(queue.removeFirst(value -> true));
+        // the removed element is consumed by the next poll
+        Assert.assertTrue(queue.hasAvailable());
+        Assert.assertNull(queue.poll());
+        Assert.assertFalse(queue.hasAvailable());
+    }
+
+    @Test
+    public void testReuseChunks() {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(4);
+        int next = 0;
+        for (int i = 0; i < 1000; i++) {
+            queue.offer(i * 3);
+            queue.offer(i * 3 + 1);
+            queue.offer(i * 3 + 2);
+            if(i % 10 == 0) {
+                Assert.assertEquals(i * 3 + 1, queue.removeFirst(value -> value % 3 == 1).intValue());
+            }
+            for (int j = 0; j < 3; j++) {
+                if(next % 3 == 1 && (next / 3) % 10 == 0) {
+                    next++;
+                    continue;
+                }
+                Assert.assertEquals(next++, queue.poll().intValue());
+            }
+            Assert.assertNull(queue.poll());
+            Assert.assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(16);
+        int producers = 8;
+        int perProducer = 10_000;
+        CountDownLatch done = new CountDownLatch(producers);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                executor.execute(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        queue.offer(producer * perProducer + i);
+                    }
+                    done.countDown();
+                });
+            }
+
+            int[] last = new int[producers];
+            Arrays.fill(last, -1);
+            int consumed = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (consumed < producers * perProducer && System.nanoTime() < deadline) {
+                Integer value = queue.poll();
+                if(value != null) {
+                    int producer = value / perProducer;
+                    // the elements of each producer keep their order
+                    Assert.assertTrue(value % perProducer > last[producer]);
+                    last[producer] = value % perProducer;
+                    consumed++;
+                }
+            }
+            Assert.assertTrue(done.await(1, TimeUnit.SECONDS));
+            Assert.assertEquals(producers * perProducer, consumed);
+            Assert.assertTrue(queue.isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.SinglePacketBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.AsynchronousSocketChannel;
+
+/**
+ * @author JoeAlisson
+ */
+public class OpcodePacketHandlerTest {
+
+    private static final int AUTH_STATE = 0;
+    private static final int GAME_STATE = 1;
+
+    @Test
+    public void testDispatch() {
+        OpcodePacketHandler<AsyncClient> handler = new OpcodePacketHandler<AsyncClient>()
+                .register(0x01, FirstPacket::new)
+                .registerExtended(0xD0, 0x0102, SecondPacket::new);
+
+        Assert.assertTrue(handler.handlePacket(buffer(0x01), null) instanceof FirstPacket);
+        Assert.assertTrue(handler.handlePacket(buffer(0xD0, 0x02, 0x01), null) instanceof SecondPacket);
+        Assert.assertEquals(0, handler.unknownOpcodeCount());
+    }
+
+    @Test
+    public void testUnknownOpcodes() {
+        OpcodePacketHandler<AsyncClient> handler = new OpcodePacketHandler<AsyncClient>()
+                .register(0x01, FirstPacket::new)
+                .registerExtended(0xD0, 0x05, SecondPacket::new);
+
+        Assert.assertNull(handler.handlePacket(buffer(0x02), null));
+        Assert.assertNull(handler.handlePacket(buffer(0x02), null));
+        Assert.assertNull(handler.handlePacket(buffer(0xD0, 0x06, 0x00), null));
+        Assert.assertNull(handler.handlePacket(buffer(0xD0, 0x00, 0x01), null));
+        Assert.assertNull(handler.handlePacket(buffer(0xD0), null));
+
+        Assert.assertEquals(2, handler.unknownOpcodeCount(0x02));
+        Assert.assertEquals(0, handler.unknownOpcodeCount(0x01));
+        Assert.assertEquals(3, handler.unknownExtendedOpcodeCount());
+        Assert.assertEquals(5, handler.unknownOpcodeCount());
+    }
+
+    @Test
+    public void testStateFilter() throws IOException {
+        int[] state = { AUTH_STATE };
+        OpcodePacketHandler<AsyncClient> handler = new OpcodePacketHandler<AsyncClient>(client -> state[0])
+                .register(0x01, FirstPacket::new, OpcodePacketHandler.states(AUTH_STATE))
+                .register(0x02, FirstPacket::new, OpcodePacketHandler.states(GAME_STATE))
+                .registerExtended(0xD0, 0x01, SecondPacket::new, OpcodePacketHandler.states(AUTH_STATE, GAME_STATE))
+                .register(0x03, FirstPacket::new);
+
+        AsyncClient client = newClient();
+        Assert.assertNotNull(handler.handlePacket(buffer(0x01), client));
+        Assert.assertNull(handler.handlePacket(buffer(0x02), client));
+        Assert.assertNotNull(handler.handlePacket(buffer(0xD0, 0x01, 0x00), client));
+        Assert.assertNotNull(handler.handlePacket(buffer(0x03), client));
+
+        state[0] = GAME_STATE;
+        Assert.assertNull(handler.handlePacket(buffer(0x01), client));
+        Assert.assertNotNull(handler.handlePacket(buffer(0x02), client));
+        Assert.assertNotNull(handler.handlePacket(buffer(0xD0, 0x01, 0x00), client));
+
+        Assert.assertEquals(2, handler.rejectedPacketCount());
+        Assert.assertEquals(0, handler.unknownOpcodeCount());
+    }
+
+    @Test
+    public void testOutOfRangeState() throws IOException {
+        int[] state = { 32 };
+        OpcodePacketHandler<AsyncClient> handler = new OpcodePacketHandler<AsyncClient>(client -> state[0])
+                .register(0x01, FirstPacket::new, OpcodePacketHandler.states(AUTH_STATE))
+                .registerExtended(0xD0, 0x01, SecondPacket::new, OpcodePacketHandler.states(AUTH_STATE))
+                .register(0x03, FirstPacket::new);
+
+        AsyncClient client = newClient();
+        // 1 << 32 would alias the state 0
+        Assert.assertNull(handler.handlePacket(buffer(0x01), client));
+        Assert.assertNull(handler.handlePacket(buffer(0xD0, 0x01, 0x00), client));
+        state[0] = -32;
+        Assert.assertNull(handler.handlePacket(buffer(0x01), client));
+        Assert.assertNotNull(handler.handlePacket(buffer(0x03), client));
+
+        Assert.assertEquals(3, handler.rejectedPacketCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyStateMask() {
+        new OpcodePacketHandler<AsyncClient>().register(0x01, FirstPacket::new, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicatedOpcode() {
+        new OpcodePacketHandler<AsyncClient>().register(0x01, FirstPacket::new).register(0x01, SecondPacket::new);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicatedSubOpcode() {
+        new OpcodePacketHandler<AsyncClient>().registerExtended(0xD0, 1, FirstPacket::new).registerExtended(0xD0, 1, SecondPacket::new);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOpcodeAlreadyExtended() {
+        new OpcodePacketHandler<AsyncClient>().registerExtended(0xD0, 1, FirstPacket::new).register(0xD0, SecondPacket::new);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidOpcode() {
+        new OpcodePacketHandler<AsyncClient>().register(256, FirstPacket::new);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidState() {
+        OpcodePacketHandler.states(32);
+    }
+
+    private AsyncClient newClient() throws IOException {
+        ConnectionConfig config = new ConnectionConfig(null);
+        return new AsyncClient(new Connection<>(AsynchronousSocketChannel.open(), null, null, config));
+    }
+
+    private ReadableBuffer buffer(int... data) {
+        ByteBuffer buffer = ByteBuffer.allocate(data.length).order(ByteOrder.LITTLE_ENDIAN);
+        for (int b : data) {
+            buffer.put((byte) b);
+        }
+        return new SinglePacketBuffer(buffer.flip());
+    }
+
+    static class FirstPacket extends ReadablePacket<AsyncClient> {
+
+        @Override
+        protected boolean read() {
+            return true;
+        }
+
+        @Override
+        public void run() {
+            // nothing to do
+        }
+    }
+
+    static class SecondPacket extends FirstPacket {
+    }
+}
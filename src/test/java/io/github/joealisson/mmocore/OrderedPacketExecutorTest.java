@@ -0,0 +1,229 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author JoeAlisson
+ */
+public class OrderedPacketExecutorTest {
+
+    private static final int CLIENTS = 8;
+    private static final int PACKETS = 500;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchSize() {
+        new OrderedPacketExecutor<AsyncClient>(Runnable::run, 0);
+    }
+
+    @Test
+    public void testOrderPerClient() throws IOException, InterruptedException {
+        testOrderPerClient(16);
+    }
+
+    @Test
+    public void testOrderPerClientWithoutBatching() throws IOException, InterruptedException {
+        testOrderPerClient(1);
+    }
+
+    private void testOrderPerClient(int batchSize) throws IOException, InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        List<AsynchronousSocketChannel> channels = new ArrayList<>();
+        try {
+            OrderedPacketExecutor<AsyncClient> executor = new OrderedPacketExecutor<>(workers, batchSize);
+            AtomicBoolean failed = new AtomicBoolean();
+            AtomicInteger executed = new AtomicInteger();
+            List<List<Integer>> clientsExecutions = new ArrayList<>();
+            List<AsyncClient> clients = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                AsynchronousSocketChannel channel = AsynchronousSocketChannel.open();
+                channels.add(channel);
+                clients.add(new AsyncClient(new Connection<>(channel, null, null, new ConnectionConfig(null))));
+            }
+
+            List<Thread> producers = new ArrayList<>();
+            for (AsyncClient client : clients) {
+                List<Integer> executions = Collections.synchronizedList(new ArrayList<>());
+                AtomicInteger running = new AtomicInteger();
+                Thread producer = new Thread(() -> {
+                    for (int i = 0; i < PACKETS; i++) {
+                        OrderedPacket packet = new OrderedPacket(i, executions, running, failed, executed);
+                        packet.init(client, null);
+                        executor.execute(packet);
+                    }
+                });
+                producers.add(producer);
+                clientsExecutions.add(executions);
+                producer.start();
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> executed.get() == CLIENTS * PACKETS);
+            Assert.assertFalse(failed.get());
+            for (List<Integer> executions : clientsExecutions) {
+                Assert.assertEquals(PACKETS, executions.size());
+                for (int i = 0; i < PACKETS; i++) {
+                    Assert.assertEquals(i, executions.get(i).intValue());
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+            for (AsynchronousSocketChannel channel : channels) {
+                channel.close();
+            }
+        }
+    }
+
+    @Test
+    public void testDiscardRejectedPackets() throws IOException {
+        try(AsynchronousSocketChannel channel = AsynchronousSocketChannel.open()) {
+            AsyncClient client = new AsyncClient(new Connection<>(channel, null, null, new ConnectionConfig(null)));
+            OrderedPacketExecutor<AsyncClient> executor = new OrderedPacketExecutor<>(runnable -> { throw new RejectedExecutionException(); });
+            Queue<Integer> received = new ConcurrentLinkedQueue<>();
+            ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(received));
+            AsyncServerValuePacket pooled = pool.get();
+            pooled.init(client, null);
+            client.packetSubmitted();
+            executor.execute(pooled.task(true, false));
+
+            AtomicInteger executed = new AtomicInteger();
+            OrderedPacket packet = new OrderedPacket(0, new ArrayList<>(), new AtomicInteger(), new AtomicBoolean(), executed);
+            packet.init(client, null);
+            client.packetSubmitted();
+            executor.execute(packet.task(true, false));
+
+            Assert.assertTrue(received.isEmpty());
+            Assert.assertEquals(0, executed.get());
+            Assert.assertEquals(1, pool.available());
+            Assert.assertEquals(0, client.getInFlightPackets());
+            Assert.assertEquals(0, client.getMailbox().size());
+        }
+    }
+
+    @Test
+    public void testRescheduleAfterError() throws IOException {
+        try(AsynchronousSocketChannel channel = AsynchronousSocketChannel.open()) {
+            AsyncClient client = new AsyncClient(new Connection<>(channel, null, null, new ConnectionConfig(null)));
+            OrderedPacketExecutor<AsyncClient> executor = new OrderedPacketExecutor<>(Runnable::run);
+            ReadablePacket<AsyncClient> failing = new ReadablePacket<>() {
+                @Override
+                protected boolean read() {
+                    return true;
+                }
+
+                @Override
+                public void run() {
+                    throw new AssertionError("packet failure");
+                }
+            };
+            failing.init(client, null);
+            try {
+                executor.execute(failing);
+                Assert.fail("The error must be propagated to the worker");
+            } catch (AssertionError e) {
+                Assert.assertEquals("packet failure", e.getMessage());
+            }
+
+            AtomicInteger executed = new AtomicInteger();
+            OrderedPacket packet = new OrderedPacket(0, new ArrayList<>(), new AtomicInteger(), new AtomicBoolean(), executed);
+            packet.init(client, null);
+            executor.execute(packet);
+            Assert.assertEquals(1, executed.get());
+        }
+    }
+
+    @Test
+    public void testIntegration() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        Queue<Integer> received = new ConcurrentLinkedQueue<>();
+        ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(received));
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> pool.get(),
+                new OrderedPacketExecutor<>(workers, 4)).inboundBackpressure(2, 8).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).connect(socketAddress);
+            for (int i = 0; i < PACKETS; i++) {
+                client.sendPacket(new AsyncClientValuePacket(i));
+            }
+
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == PACKETS);
+            int expected = 0;
+            for (Integer value : received) {
+                Assert.assertEquals(expected++, value.intValue());
+            }
+        } finally {
+            handler.shutdown();
+            workers.shutdownNow();
+        }
+    }
+
+    private static class OrderedPacket extends ReadablePacket<AsyncClient> {
+
+        private final int sequence;
+        private final List<Integer> executions;
+        private final AtomicInteger running;
+        private final AtomicBoolean failed;
+        private final AtomicInteger executed;
+
+        OrderedPacket(int sequence, List<Integer> executions, AtomicInteger running, AtomicBoolean failed, AtomicInteger executed) {
+            this.sequence = sequence;
+            this.executions = executions;
+            this.running = running;
+            this.failed = failed;
+            this.executed = executed;
+        }
+
+        @Override
+        protected boolean read() {
+            return true;
+        }
+
+        @Override
+        public void run() {
+            if(running.incrementAndGet() != 1) {
+                failed.set(true);
+            }
+            executions.add(sequence);
+            running.decrementAndGet();
+            executed.incrementAndGet();
+        }
+    }
+}
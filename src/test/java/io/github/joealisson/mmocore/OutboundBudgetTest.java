@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author JoeAlisson
+ */
+public class OutboundBudgetTest {
+
+    private static final int PACKETS = 20;
+    private static final int BUDGET_PACKETS = 10;
+    private static final int PACKET_SIZE = 64;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBudget() {
+        Connector.create(AsyncClient::new, null, null).outboundBudget(-1, OutboundBudgetPolicy.DROP);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullPolicy() {
+        Connector.create(AsyncClient::new, null, null).outboundBudget(10, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeGracePeriod() {
+        Connector.create(AsyncClient::new, null, null).outboundGracePeriod(-1);
+    }
+
+    @Test
+    public void testDropPolicy() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9095);
+        Queue<Integer> received = new ConcurrentLinkedQueue<>();
+        ConnectionHandler<AsyncClient> handler = valueServer(socketAddress, received).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).outboundBudget(budget(), OutboundBudgetPolicy.DROP).connect(socketAddress);
+            client.cork();
+            for (int i = 0; i < PACKETS; i++) {
+                client.sendPacket(new DroppablePacket(i));
+            }
+            client.sendPacket(new BudgetPacket(PACKETS));
+            Assert.assertEquals(BUDGET_PACKETS + 1, client.getEstimateQueueSize());
+            Assert.assertEquals(budget() + PACKET_SIZE, client.getQueuedBytes());
+
+            client.flush();
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> received.size() == BUDGET_PACKETS + 1);
+            Assert.assertEquals(0, client.getQueuedBytes());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testPausePolicy() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9095);
+        Queue<Integer> received = new ConcurrentLinkedQueue<>();
+        ConnectionHandler<AsyncClient> handler = valueServer(socketAddress, received).build();
+        try {
+            handler.start();
+            AtomicInteger congested = new AtomicInteger();
+            AtomicInteger drained = new AtomicInteger();
+            AsyncClient client = Connector.create((Connection<AsyncClient> connection) -> new BudgetClient(connection, congested, drained), null, null)
+                    .outboundBudget(budget(), OutboundBudgetPolicy.PAUSE).connect(socketAddress);
+            client.cork();
+            for (int i = 0; i < PACKETS; i++) {
+                client.sendPacket(new DroppablePacket(i));
+            }
+            Assert.assertEquals(PACKETS, client.getEstimateQueueSize());
+            Assert.assertEquals(1, congested.get());
+            Assert.assertEquals(0, drained.get());
+
+            client.flush();
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> received.size() == PACKETS);
+            Assert.assertEquals(1, drained.get());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testDisconnectPolicy() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9095);
+        Queue<Integer> received = new ConcurrentLinkedQueue<>();
+        ConnectionHandler<AsyncClient> handler = valueServer(socketAddress, received).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).outboundBudget(budget(), OutboundBudgetPolicy.DISCONNECT)
+                    .outboundGracePeriod(100).connect(socketAddress);
+            client.cork();
+            for (int i = 0; i < PACKETS; i++) {
+                client.sendPacket(new BudgetPacket(i));
+            }
+            Assert.assertTrue(client.isConnected());
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> !client.isConnected());
+            Assert.assertTrue(received.isEmpty());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    private static int budget() {
+        return BUDGET_PACKETS * PACKET_SIZE;
+    }
+
+    private ConnectionBuilder<AsyncClient> valueServer(InetSocketAddress socketAddress, Queue<Integer> received) {
+        ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(received));
+        return ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> pool.get(), Runnable::run).shutdownWaitTime(100);
+    }
+
+    private static class BudgetPacket extends AsyncClientValuePacket {
+
+        BudgetPacket(int value) {
+            super(value);
+        }
+
+        @Override
+        public int getSizeHint() {
+            return PACKET_SIZE;
+        }
+    }
+
+    private static class DroppablePacket extends BudgetPacket {
+
+        DroppablePacket(int value) {
+            super(value);
+        }
+
+        @Override
+        public boolean canBeDropped(AsyncClient client) {
+            return true;
+        }
+    }
+
+    private static class BudgetClient extends AsyncClient {
+
+        private final AtomicInteger congested;
+        private final AtomicInteger drained;
+
+        BudgetClient(Connection<AsyncClient> connection, AtomicInteger congested, AtomicInteger drained) {
+            super(connection);
+            this.congested = congested;
+            this.drained = drained;
+        }
+
+        @Override
+        protected void onOutboundCongested() {
+            congested.incrementAndGet();
+        }
+
+        @Override
+        protected void onOutboundDrained() {
+            drained.incrementAndGet();
+        }
+    }
+}
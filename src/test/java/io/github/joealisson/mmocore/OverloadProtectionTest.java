@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author JoeAlisson
+ */
+public class OverloadProtectionTest {
+
+    private static final int LOW_WATERMARK = 2;
+    private static final int HIGH_WATERMARK = 6;
+    private static final int NOISY_PACKETS = 40;
+    private static final int QUIET_PACKETS = 3;
+
+    private final InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+    private final PendingPacketExecutor pending = new PendingPacketExecutor();
+    private final AtomicInteger executed = new AtomicInteger();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWatermarks() {
+        ConnectionBuilder.create(socketAddress, AsyncClient::new, null, null).overloadProtection(-1, 5);
+    }
+
+    @Test
+    public void testDisabledStats() throws IOException {
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, null, null).shutdownWaitTime(100).build();
+        try {
+            OverloadStats stats = handler.overloadStats();
+            Assert.assertFalse(stats.isOverloaded());
+            Assert.assertEquals(0, stats.getOverloadCount());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testShedNoisiestClient() throws IOException, ExecutionException, InterruptedException {
+        shedNoisiestClient(0);
+    }
+
+    @Test
+    public void testShedNoisiestClientWithReadAhead() throws IOException, ExecutionException, InterruptedException {
+        shedNoisiestClient(256);
+    }
+
+    private void shedNoisiestClient(int readAheadSize) throws IOException, ExecutionException, InterruptedException {
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> new PendingPacket(), pending)
+                .overloadProtection(LOW_WATERMARK, HIGH_WATERMARK).readAheadBufferSize(readAheadSize).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            Connector<AsyncClient> connector = Connector.create(AsyncClient::new, null, null);
+            AsyncClient noisy = connector.connect(socketAddress);
+            for (int i = 0; i < NOISY_PACKETS; i++) {
+                noisy.sendPacket(new AsyncClientValuePacket(i));
+            }
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> pending.size() == HIGH_WATERMARK);
+
+            AsyncClient quiet = connector.connect(socketAddress);
+            for (int i = 0; i < QUIET_PACKETS; i++) {
+                quiet.sendPacket(new AsyncClientValuePacket(i));
+            }
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> pending.size() == HIGH_WATERMARK + QUIET_PACKETS);
+            Awaitility.await().during(100, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS).until(() -> pending.size() == HIGH_WATERMARK + QUIET_PACKETS);
+
+            OverloadStats stats = handler.overloadStats();
+            Assert.assertTrue(stats.isOverloaded());
+            Assert.assertEquals(1, stats.getOverloadCount());
+            Assert.assertEquals(1, stats.getShedReads());
+            Assert.assertEquals(HIGH_WATERMARK + QUIET_PACKETS, stats.getInFlightPackets());
+
+            pending.runPending(NOISY_PACKETS + QUIET_PACKETS, 10, TimeUnit.SECONDS, () -> { });
+            Assert.assertEquals(NOISY_PACKETS + QUIET_PACKETS, executed.get());
+
+            stats = handler.overloadStats();
+            Assert.assertFalse(stats.isOverloaded());
+            Assert.assertEquals(0, stats.getInFlightPackets());
+            Assert.assertTrue(stats.getOverloadTime() >= 100);
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    private class PendingPacket extends ReadablePacket<AsyncClient> {
+
+        @Override
+        protected boolean read() {
+            return true;
+        }
+
+        @Override
+        public void run() {
+            executed.incrementAndGet();
+        }
+    }
+}
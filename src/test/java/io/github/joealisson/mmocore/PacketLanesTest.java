@@ -0,0 +1,226 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * @author JoeAlisson
+ */
+public class PacketLanesTest {
+
+    @Test
+    public void testPriorityOrder() {
+        PacketLanes<PriorityPacket> lanes = new PacketLanes<>(8, Integer.MAX_VALUE);
+        lanes.add(new PriorityPacket(1, PacketPriority.LOW));
+        lanes.add(new PriorityPacket(2, PacketPriority.NORMAL));
+        lanes.add(new PriorityPacket(3, PacketPriority.HIGH));
+        lanes.add(new PriorityPacket(4, null));
+        lanes.add(new PriorityPacket(5, PacketPriority.HIGH));
+
+        Assert.assertEquals(3, lanes.poll().value);
+        Assert.assertEquals(5, lanes.poll().value);
+        Assert.assertEquals(2, lanes.poll().value);
+        Assert.assertEquals(4, lanes.poll().value);
+        Assert.assertEquals(1, lanes.poll().value);
+        Assert.assertNull(lanes.poll());
+        Assert.assertTrue(lanes.isEmpty());
+    }
+
+    @Test
+    public void testStarvationGuard() {
+        PacketLanes<PriorityPacket> lanes = new PacketLanes<>(2, Integer.MAX_VALUE);
+        lanes.add(new PriorityPacket(0, PacketPriority.LOW));
+        for (int i = 1; i <= 4; i++) {
+            lanes.add(new PriorityPacket(i, PacketPriority.HIGH));
+        }
+
+        Assert.assertEquals(1, lanes.poll().value);
+        Assert.assertEquals(2, lanes.poll().value);
+        Assert.assertEquals(0, lanes.poll().value);
+        Assert.assertEquals(3, lanes.poll().value);
+        Assert.assertEquals(4, lanes.poll().value);
+        Assert.assertTrue(lanes.isEmpty());
+    }
+
+    @Test
+    public void testEvictBelow() {
+        PacketLanes<PriorityPacket> lanes = new PacketLanes<>(8, Integer.MAX_VALUE);
+        PriorityPacket normal = new PriorityPacket(1, PacketPriority.NORMAL);
+        PriorityPacket low = new PriorityPacket(2, PacketPriority.LOW);
+        lanes.add(normal);
+        lanes.add(low);
+
+        Assert.assertNull(lanes.evictBelow(new PriorityPacket(3, PacketPriority.LOW), packet -> true));
+        Assert.assertSame(low, lanes.evictBelow(new PriorityPacket(3, PacketPriority.HIGH), packet -> true));
+        Assert.assertNull(lanes.evictBelow(new PriorityPacket(3, PacketPriority.HIGH), packet -> packet.value > 1));
+        Assert.assertSame(normal, lanes.evictBelow(new PriorityPacket(3, PacketPriority.HIGH), packet -> true));
+        Assert.assertTrue(lanes.isEmpty());
+    }
+
+    @Test
+    public void testCoalescing() {
+        PacketLanes<PriorityPacket> lanes = new PacketLanes<>(8, Integer.MAX_VALUE);
+        PriorityPacket first = new PriorityPacket(1, PacketPriority.NORMAL, 10);
+        PriorityPacket second = new PriorityPacket(2, PacketPriority.NORMAL, 10);
+        PriorityPacket third = new PriorityPacket(3, PacketPriority.NORMAL, 10);
+
+        Assert.assertNull(lanes.replace(first));
+        Assert.assertNull(lanes.add(first));
+        lanes.add(new PriorityPacket(4, PacketPriority.NORMAL));
+        lanes.add(new PriorityPacket(5, PacketPriority.NORMAL, 20));
+        Assert.assertSame(first, lanes.replace(second));
+        Assert.assertSame(second, lanes.add(third));
+
+        Assert.assertSame(third, lanes.poll());
+        Assert.assertEquals(4, lanes.poll().value);
+        Assert.assertEquals(5, lanes.poll().value);
+        Assert.assertNull(lanes.poll());
+
+        Assert.assertNull(lanes.replace(first));
+        Assert.assertNull(lanes.add(first));
+        Assert.assertSame(first, lanes.poll());
+    }
+
+    @Test
+    public void testEvictCoalesced() {
+        PacketLanes<PriorityPacket> lanes = new PacketLanes<>(8, Integer.MAX_VALUE);
+        PriorityPacket low = new PriorityPacket(1, PacketPriority.LOW, 10);
+        lanes.add(low);
+
+        Assert.assertSame(low, lanes.evictBelow(new PriorityPacket(2, PacketPriority.HIGH), packet -> true));
+        Assert.assertTrue(lanes.isEmpty());
+        Assert.assertNull(lanes.replace(new PriorityPacket(3, PacketPriority.LOW, 10)));
+    }
+
+    @Test
+    public void testCoalescingWithAnotherPriority() {
+        PacketLanes<PriorityPacket> lanes = new PacketLanes<>(8, Integer.MAX_VALUE);
+        PriorityPacket first = new PriorityPacket(1, PacketPriority.NORMAL, 10);
+        PriorityPacket second = new PriorityPacket(2, PacketPriority.HIGH, 10);
+        PriorityPacket third = new PriorityPacket(3, PacketPriority.NORMAL, 10);
+
+        Assert.assertNull(lanes.add(first));
+        lanes.add(new PriorityPacket(4, PacketPriority.NORMAL));
+        Assert.assertNull(lanes.replace(second));
+        Assert.assertSame(first, lanes.add(second));
+        Assert.assertSame(second, lanes.poll());
+        Assert.assertEquals(4, lanes.poll().value);
+        Assert.assertNull(lanes.poll());
+        Assert.assertTrue(lanes.isEmpty());
+
+        Assert.assertNull(lanes.add(first));
+        Assert.assertSame(first, lanes.add(second));
+        Assert.assertSame(second, lanes.add(third));
+        Assert.assertSame(third, lanes.poll());
+        Assert.assertNull(lanes.poll());
+        Assert.assertTrue(lanes.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentCoalescing() throws InterruptedException {
+        int producers = 4;
+        int packets = 20_000;
+        PacketLanes<PriorityPacket> lanes = new PacketLanes<>(8, Integer.MAX_VALUE);
+        AtomicInteger discarded = new AtomicInteger();
+        AtomicInteger evicted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int seed = p;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < packets; i++) {
+                    PacketPriority priority = PacketPriority.values()[(i + seed) % PacketPriority.values().length];
+                    PriorityPacket packet = new PriorityPacket(i, priority, i % 8);
+                    PriorityPacket replaced = lanes.replace(packet);
+                    if(isNull(replaced)) {
+                        replaced = lanes.add(packet);
+                    }
+                    if(nonNull(replaced)) {
+                        discarded.incrementAndGet();
+                    }
+                    if(i % 64 == 0 && nonNull(lanes.evictBelow(new PriorityPacket(0, PacketPriority.HIGH), queued -> true))) {
+                        evicted.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(producer);
+            producer.start();
+        }
+
+        Set<PriorityPacket> polled = Collections.newSetFromMap(new IdentityHashMap<>());
+        boolean producing = true;
+        while (producing) {
+            producing = threads.stream().anyMatch(Thread::isAlive);
+            PriorityPacket packet;
+            while (nonNull(packet = lanes.poll())) {
+                Assert.assertTrue(polled.add(packet));
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertNull(lanes.poll());
+        Assert.assertTrue(lanes.isEmpty());
+        Assert.assertEquals(producers * packets, polled.size() + discarded.get() + evicted.get());
+    }
+
+    static class PriorityPacket extends WritablePacket<AsyncClient> {
+
+        private final int value;
+        private final PacketPriority priority;
+        private final long key;
+
+        PriorityPacket(int value, PacketPriority priority) {
+            this(value, priority, NO_COALESCING_KEY);
+        }
+
+        PriorityPacket(int value, PacketPriority priority, long key) {
+            this.value = value;
+            this.priority = priority;
+            this.key = key;
+        }
+
+        @Override
+        public PacketPriority getPriority() {
+            return priority;
+        }
+
+        @Override
+        public long getCoalescingKey() {
+            return key;
+        }
+
+        @Override
+        protected boolean write(AsyncClient client, WritableBuffer buffer) {
+            buffer.writeInt(value);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.InternalWritableBuffer;
+import io.github.joealisson.mmocore.internal.MovingMaximum;
+import io.github.joealisson.mmocore.internal.NotWrittenBufferException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.channels.AsynchronousSocketChannel;
+
+/**
+ * @author JoeAlisson
+ */
+public class PacketSizeHintTest {
+
+    private static final int PACKET_SIZE = 3000;
+
+    @Test
+    public void testMovingMaximum() {
+        MovingMaximum maximum = new MovingMaximum(4);
+        Assert.assertEquals(0, maximum.get());
+        maximum.add(100);
+        maximum.add(10);
+        Assert.assertEquals(100, maximum.get());
+        maximum.add(20);
+        maximum.add(30);
+        // the first window is completed, its maximum is kept while the next window is filled
+        Assert.assertEquals(100, maximum.get());
+        for (int i = 0; i < 4; i++) {
+            maximum.add(50);
+        }
+        Assert.assertEquals(50, maximum.get());
+        maximum.add(70);
+        Assert.assertEquals(70, maximum.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWindow() {
+        new MovingMaximum(0);
+    }
+
+    @Test
+    public void testExplicitHint() throws IOException, NotWrittenBufferException {
+        try(AsynchronousSocketChannel channel = AsynchronousSocketChannel.open()) {
+            AsyncClient client = newClient(channel);
+            InternalWritableBuffer buffer = new HintedPacket().writeData(client);
+            try {
+                Assert.assertEquals(1, buffer.toByteBuffers(0).length);
+                Assert.assertEquals(PACKET_SIZE + 2, buffer.limit());
+            } finally {
+                buffer.releaseResources();
+            }
+        }
+    }
+
+    @Test
+    public void testLearnedHint() throws IOException, NotWrittenBufferException {
+        try(AsynchronousSocketChannel channel = AsynchronousSocketChannel.open()) {
+            AsyncClient client = newClient(channel);
+            InternalWritableBuffer buffer = new LearnedPacket().writeData(client);
+            Assert.assertTrue(buffer.toByteBuffers(0).length > 1);
+            buffer.releaseResources();
+
+            LearnedPacket packet = new LearnedPacket();
+            Assert.assertEquals(PACKET_SIZE, packet.estimateSize(client.getResourcePool()));
+            buffer = packet.writeData(client);
+            try {
+                Assert.assertEquals(1, buffer.toByteBuffers(0).length);
+                Assert.assertEquals(PACKET_SIZE + 2, buffer.limit());
+            } finally {
+                buffer.releaseResources();
+            }
+        }
+    }
+
+    private AsyncClient newClient(AsynchronousSocketChannel channel) {
+        ConnectionConfig config = new ConnectionConfig(null);
+        config.newBufferGroup(10, 4096);
+        config.complete();
+        return new AsyncClient(new Connection<>(channel, null, null, config));
+    }
+
+    private static class HintedPacket extends WritablePacket<AsyncClient> {
+
+        @Override
+        public int getSizeHint() {
+            return PACKET_SIZE;
+        }
+
+        @Override
+        protected boolean write(AsyncClient client, WritableBuffer buffer) {
+            buffer.writeBytes(new byte[PACKET_SIZE]);
+            return true;
+        }
+    }
+
+    private static class LearnedPacket extends WritablePacket<AsyncClient> {
+
+        @Override
+        protected boolean write(AsyncClient client, WritableBuffer buffer) {
+            buffer.writeBytes(new byte[PACKET_SIZE]);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the incoming packets until the test executes them.
+ *
+ * @author JoeAlisson
+ */
+public class PendingPacketExecutor implements PacketExecutor<AsyncClient> {
+
+    private final Queue<ReadablePacket<AsyncClient>> pending = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void execute(ReadablePacket<AsyncClient> packet) {
+        pending.add(packet);
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Execute the oldest pending packet
+     *
+     * @return true if there was a packet to execute
+     */
+    public boolean runNext() {
+        ReadablePacket<AsyncClient> packet = pending.poll();
+        if(packet == null) {
+            return false;
+        }
+        packet.run();
+        return true;
+    }
+
+    /**
+     * Execute the pending packets as they arrive, until the amount of packets is executed or the timeout expires.
+     *
+     * @param packets the amount of packets to execute
+     * @param timeout the maximum time to wait the packets
+     * @param unit the unit of the timeout
+     * @param check a check done after each attempt to execute a packet
+     * @return the amount of packets executed
+     */
+    public int runPending(int packets, long timeout, TimeUnit unit, Runnable check) {
+        int executed = 0;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (executed < packets && System.nanoTime() < deadline) {
+            if(runNext()) {
+                executed++;
+            } else {
+                Thread.yield();
+            }
+            check.run();
+        }
+        return executed;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.TokenBucket;
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author JoeAlisson
+ */
+public class RateLimitTest {
+
+    private static final int PACKETS = 20;
+
+    private final InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+    private final AtomicInteger received = new AtomicInteger();
+    private final AtomicReference<AsyncClient> serverClient = new AtomicReference<>();
+    private RateLimit clientRateLimit;
+
+    @Test
+    public void testTokenBucketPackets() {
+        TokenBucket bucket = new TokenBucket();
+        long now = 0;
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(bucket.tryConsume(10, 0, 100, now));
+        }
+        Assert.assertFalse(bucket.tryConsume(10, 0, 100, now));
+
+        now += TimeUnit.MILLISECONDS.toNanos(100);
+        Assert.assertTrue(bucket.tryConsume(10, 0, 100, now));
+        Assert.assertFalse(bucket.tryConsume(10, 0, 100, now));
+
+        now += TimeUnit.SECONDS.toNanos(10);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(bucket.tryConsume(10, 0, 100, now));
+        }
+        Assert.assertFalse(bucket.tryConsume(10, 0, 100, now));
+    }
+
+    @Test
+    public void testTokenBucketBytes() {
+        TokenBucket bucket = new TokenBucket();
+        long now = 0;
+        Assert.assertTrue(bucket.tryConsume(0, 1000, 600, now));
+        Assert.assertTrue(bucket.tryConsume(0, 1000, 600, now));
+        Assert.assertFalse(bucket.tryConsume(0, 1000, 1, now));
+
+        now += TimeUnit.MILLISECONDS.toNanos(100);
+        Assert.assertFalse(bucket.tryConsume(0, 1000, 1, now));
+
+        now += TimeUnit.MILLISECONDS.toNanos(200);
+        Assert.assertTrue(bucket.tryConsume(0, 1000, 1, now));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPauseTime() {
+        RateLimit.pause(10, 0, 0);
+    }
+
+    @Test
+    public void testDropRateLimit() throws IOException, ExecutionException, InterruptedException {
+        ConnectionHandler<AsyncClient> handler = builder().rateLimit(RateLimit.drop(5, 0)).build();
+        try {
+            handler.start();
+            AsyncClient client = connectAndSend(PACKETS);
+
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> received.get() >= 5);
+            Awaitility.await().during(200, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS).until(() -> received.get() < PACKETS);
+            Assert.assertTrue(client.isConnected());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testDropRateLimitWithReadAhead() throws IOException, ExecutionException, InterruptedException {
+        ConnectionHandler<AsyncClient> handler = builder().rateLimit(RateLimit.drop(5, 0)).readAheadBufferSize(256).build();
+        try {
+            handler.start();
+            connectAndSend(PACKETS);
+
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> received.get() >= 5);
+            Awaitility.await().during(200, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS).until(() -> received.get() < PACKETS);
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testPauseRateLimit() throws IOException, ExecutionException, InterruptedException {
+        testPauseRateLimit(0);
+    }
+
+    @Test
+    public void testPauseRateLimitWithReadAhead() throws IOException, ExecutionException, InterruptedException {
+        testPauseRateLimit(256);
+    }
+
+    private void testPauseRateLimit(int readAheadSize) throws IOException, ExecutionException, InterruptedException {
+        ConnectionHandler<AsyncClient> handler = builder().rateLimit(RateLimit.pause(40, 0, 20)).readAheadBufferSize(readAheadSize).build();
+        try {
+            handler.start();
+            long start = System.currentTimeMillis();
+            connectAndSend(PACKETS * 3);
+
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> received.get() == PACKETS * 3);
+            Assert.assertTrue(System.currentTimeMillis() - start >= 400);
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testDisconnectRateLimit() throws IOException, ExecutionException, InterruptedException {
+        ConnectionHandler<AsyncClient> handler = builder().rateLimit(RateLimit.disconnect(5, 0)).build();
+        try {
+            handler.start();
+            connectAndSend(PACKETS);
+
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> serverClient.get() != null && !serverClient.get().isConnected());
+            Assert.assertEquals(5, received.get());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testClientRateLimitOverride() throws IOException, ExecutionException, InterruptedException {
+        clientRateLimit = RateLimit.drop(PACKETS, 0);
+        ConnectionHandler<AsyncClient> handler = builder().rateLimit(RateLimit.disconnect(1, 0)).build();
+        try {
+            handler.start();
+            connectAndSend(PACKETS);
+
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> received.get() == PACKETS);
+            Assert.assertTrue(serverClient.get().isConnected());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    private ConnectionBuilder<AsyncClient> builder() {
+        return ConnectionBuilder.create(socketAddress, (Connection<AsyncClient> connection) -> {
+            AsyncClient client = new AsyncClient(connection);
+            client.setRateLimit(clientRateLimit);
+            serverClient.set(client);
+            return client;
+        }, (buffer, client) -> {
+            received.incrementAndGet();
+            return null;
+        }, null).shutdownWaitTime(100);
+    }
+
+    private AsyncClient connectAndSend(int packets) throws IOException, ExecutionException, InterruptedException {
+        AsyncClient client = Connector.create(AsyncClient::new, null, null).connect(socketAddress);
+        for (int i = 0; i < packets; i++) {
+            client.sendPacket(new AsyncClientValuePacket(i));
+        }
+        return client;
+    }
+}
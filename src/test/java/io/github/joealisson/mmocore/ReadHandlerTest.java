@@ -25,7 +25,11 @@ import org.junit.Test;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.AsynchronousSocketChannel;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static io.github.joealisson.mmocore.ConnectionConfig.HEADER_SIZE;
 
@@ -133,4 +137,53 @@ public class ReadHandlerTest {
             connectionHandler.shutdown();
         }
     }
+
+    @Test
+    public void testInlinePacket() throws IOException {
+        AtomicReference<Thread> executionThread = new AtomicReference<>();
+        AtomicInteger submitted = new AtomicInteger();
+        ReadHandler<AsyncClient> handler = new ReadHandler<>((data, client) -> new InlinePacket(data.readByte() != 0, executionThread),
+                packet -> submitted.incrementAndGet());
+        ConnectionConfig config = new ConnectionConfig(null);
+        try(AsynchronousSocketChannel channel = AsynchronousSocketChannel.open()) {
+            AsyncClient client = new AsyncClient(new Connection<>(channel, handler, null, config));
+            ByteBuffer buffer = ByteBuffer.allocate(2).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put((byte) 1).put((byte) 0).flip();
+
+            handler.handleFrame(client, buffer, 1);
+            Assert.assertSame(Thread.currentThread(), executionThread.get());
+            Assert.assertEquals(0, submitted.get());
+
+            executionThread.set(null);
+            handler.handleFrame(client, buffer, 1);
+            Assert.assertNull(executionThread.get());
+            Assert.assertEquals(1, submitted.get());
+        }
+    }
+
+    private static class InlinePacket extends ReadablePacket<AsyncClient> {
+
+        private final boolean inline;
+        private final AtomicReference<Thread> executionThread;
+
+        InlinePacket(boolean inline, AtomicReference<Thread> executionThread) {
+            this.inline = inline;
+            this.executionThread = executionThread;
+        }
+
+        @Override
+        protected boolean isInline() {
+            return inline;
+        }
+
+        @Override
+        protected boolean read() {
+            return true;
+        }
+
+        @Override
+        public void run() {
+            executionThread.set(Thread.currentThread());
+        }
+    }
 }
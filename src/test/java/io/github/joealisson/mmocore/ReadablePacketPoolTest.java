@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author JoeAlisson
+ */
+public class ReadablePacketPoolTest {
+
+    @Test
+    public void testPacketReturnedAfterExecution() {
+        AtomicInteger created = new AtomicInteger();
+        ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> { created.incrementAndGet(); return new AsyncServerValuePacket(new ConcurrentLinkedQueue<>()); }, 4);
+
+        AsyncServerValuePacket packet = pool.get();
+        Assert.assertEquals(1, created.get());
+        Assert.assertEquals(0, pool.available());
+
+        packet.value = 10;
+        packet.run();
+        Assert.assertEquals(1, pool.available());
+        Assert.assertEquals(0, packet.value);
+
+        Assert.assertSame(packet, pool.get());
+        Assert.assertEquals(1, created.get());
+    }
+
+    @Test
+    public void testPacketReleasedOnce() {
+        ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(new ConcurrentLinkedQueue<>()), 4);
+        AsyncServerValuePacket packet = pool.get();
+        packet.run();
+        packet.run();
+        packet.release();
+        Assert.assertEquals(1, pool.available());
+    }
+
+    @Test
+    public void testPoolCapacity() {
+        ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(new ConcurrentLinkedQueue<>()), 2);
+        AsyncServerValuePacket[] packets = { pool.get(), pool.get(), pool.get() };
+        for (AsyncServerValuePacket packet : packets) {
+            packet.run();
+        }
+        Assert.assertEquals(2, pool.available());
+    }
+
+    @Test
+    public void testPooledPacketsWithReusedBuffer() throws IOException, ExecutionException, InterruptedException {
+        testPooledPackets(0);
+    }
+
+    @Test
+    public void testPooledPacketsWithReusedBufferAndReadAhead() throws IOException, ExecutionException, InterruptedException {
+        testPooledPackets(256);
+    }
+
+    private void testPooledPackets(int readAheadSize) throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+        Queue<Integer> received = new ConcurrentLinkedQueue<>();
+        ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(received), 8);
+
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> pool.get(), Runnable::run)
+                .reuseReadableBuffer(true).readAheadBufferSize(readAheadSize).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).connect(socketAddress);
+            int packets = 100;
+            for (int i = 0; i < packets; i++) {
+                client.sendPacket(new AsyncClientValuePacket(i));
+            }
+
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == packets);
+            int expected = 0;
+            for (Integer value : received) {
+                Assert.assertEquals(expected++, value.intValue());
+            }
+            Assert.assertTrue(pool.available() > 0);
+        } finally {
+            handler.shutdown();
+        }
+    }
+}
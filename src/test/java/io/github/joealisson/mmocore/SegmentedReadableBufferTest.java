@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import io.github.joealisson.mmocore.internal.SegmentedReadableBuffer;
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author JoeAlisson
+ */
+public class SegmentedReadableBufferTest {
+
+    private static final int VALUES = 1000;
+
+    @Test
+    public void testReadAcrossSegments() {
+        ByteBuffer data = ByteBuffer.allocate(40).order(ByteOrder.LITTLE_ENDIAN);
+        data.put((byte) 1).putShort((short) 2).putInt(3).putLong(4).putDouble(5.5).putFloat(6.5f).putChar('A');
+        data.put(new byte[] { 7, 8, 9, 10, 11 });
+        int size = data.position();
+        SegmentedReadableBuffer buffer = new SegmentedReadableBuffer(split(data.flip(), 3), 3, size);
+
+        Assert.assertEquals(size, buffer.remaining());
+        Assert.assertEquals(1, buffer.readByte());
+        Assert.assertEquals(2, buffer.readShort());
+        Assert.assertEquals(3, buffer.readInt());
+        Assert.assertEquals(4, buffer.readLong());
+        Assert.assertEquals(5.5, buffer.readDouble(), 0);
+        Assert.assertEquals(6.5f, buffer.readFloat(), 0);
+        Assert.assertEquals('A', buffer.readChar());
+        byte[] bytes = new byte[5];
+        buffer.readBytes(bytes);
+        Assert.assertArrayEquals(new byte[] { 7, 8, 9, 10, 11 }, bytes);
+        Assert.assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    public void testIndexedAccessAcrossSegments() {
+        SegmentedReadableBuffer buffer = new SegmentedReadableBuffer(split(ByteBuffer.allocate(12), 5), 5, 12);
+        buffer.writeInt(3, 0x01020304);
+        buffer.writeShort(9, (short) 0x0506);
+        buffer.writeByte(11, (byte) 7);
+
+        Assert.assertEquals(0x01020304, buffer.readInt(3));
+        Assert.assertEquals(0x0304, buffer.readShort(3));
+        Assert.assertEquals(0x0506, buffer.readShort(9));
+        Assert.assertEquals(7, buffer.readByte(11));
+        Assert.assertEquals(12, buffer.limit());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testReadBeyondLimit() {
+        SegmentedReadableBuffer buffer = new SegmentedReadableBuffer(split(ByteBuffer.allocate(6), 4), 4, 6);
+        buffer.readInt();
+        buffer.readInt();
+    }
+
+    @Test
+    public void testLargePacketSegmented() throws IOException, ExecutionException, InterruptedException {
+        testLargePacket(0);
+    }
+
+    @Test
+    public void testLargePacketSegmentedWithReadAhead() throws IOException, ExecutionException, InterruptedException {
+        testLargePacket(256);
+    }
+
+    private void testLargePacket(int readAheadSize) throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+        AtomicInteger received = new AtomicInteger();
+        AtomicBoolean valid = new AtomicBoolean(true);
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> {
+            if(buffer.remaining() == VALUES * 4) {
+                for (int i = 0; i < VALUES; i++) {
+                    if(buffer.readInt() != i) {
+                        valid.set(false);
+                    }
+                }
+            }
+            received.incrementAndGet();
+            return null;
+        }, null).readAheadBufferSize(readAheadSize).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).connect(socketAddress);
+            client.sendPacket(new SequencePacket());
+            client.sendPacket(new FrameCodecTest.SizedPacket(10));
+            client.sendPacket(new SequencePacket());
+
+            Awaitility.waitAtMost(5, TimeUnit.SECONDS).until(() -> received.get() == 3);
+            Assert.assertTrue(valid.get());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    private ByteBuffer[] split(ByteBuffer data, int segmentSize) {
+        int count = (data.limit() + segmentSize - 1) / segmentSize;
+        ByteBuffer[] segments = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = ByteBuffer.allocate(segmentSize).order(ByteOrder.LITTLE_ENDIAN);
+            while (segments[i].hasRemaining() && data.hasRemaining()) {
+                segments[i].put(data.get());
+            }
+            segments[i].flip();
+        }
+        return segments;
+    }
+
+    static class SequencePacket extends WritablePacket<AsyncClient> {
+
+        @Override
+        protected boolean write(AsyncClient client, WritableBuffer buffer) {
+            for (int i = 0; i < VALUES; i++) {
+                buffer.writeInt(i);
+            }
+            return true;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /**
  * @author JoeAlisson
@@ -85,4 +86,27 @@ public class SinglePacketBufferTest {
         packetBuffer.limit(150);
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void testWrapWithOffset() {
+        ByteBuffer buffer = ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putShort((short) 8);
+        buffer.putInt(5);
+        buffer.putShort((short) 7);
+        buffer.flip().position(2);
+
+        SinglePacketBuffer packetBuffer = new SinglePacketBuffer();
+        packetBuffer.wrap(buffer);
+
+        Assert.assertEquals(6, packetBuffer.limit());
+        Assert.assertEquals(5, packetBuffer.readInt(0));
+        Assert.assertEquals(5, packetBuffer.readInt());
+        Assert.assertEquals(2, packetBuffer.remaining());
+
+        packetBuffer.writeShort(4, (short) 9);
+        Assert.assertEquals(9, buffer.getShort(6));
+
+        packetBuffer.limit(4);
+        Assert.assertEquals(6, buffer.limit());
+    }
+}
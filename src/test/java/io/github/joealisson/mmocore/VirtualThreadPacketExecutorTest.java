@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author JoeAlisson
+ */
+public class VirtualThreadPacketExecutorTest {
+
+    private static final int PACKETS = 500;
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUnsupportedExecutor() {
+        Assume.assumeFalse(VirtualThreadPacketExecutor.isSupported());
+        new VirtualThreadPacketExecutor<AsyncClient>();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUnsupportedExecutionOnVirtualThreads() {
+        Assume.assumeFalse(VirtualThreadPacketExecutor.isSupported());
+        Connector.create(AsyncClient::new, null, null).executeOnVirtualThreads(true);
+    }
+
+    @Test
+    public void testExecuteOnVirtualThreads() throws IOException, ExecutionException, InterruptedException {
+        Assume.assumeTrue(VirtualThreadPacketExecutor.isSupported());
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9091);
+        Queue<Integer> received = new ConcurrentLinkedQueue<>();
+        ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(received));
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> pool.get(), packet -> {
+            throw new IllegalStateException("packets must run on virtual threads");
+        }).executeOnVirtualThreads(true).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).connect(socketAddress);
+            for (int i = 0; i < PACKETS; i++) {
+                client.sendPacket(new AsyncClientValuePacket(i));
+            }
+
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == PACKETS);
+            int expected = 0;
+            for (Integer value : received) {
+                Assert.assertEquals(expected++, value.intValue());
+            }
+        } finally {
+            handler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author JoeAlisson
+ */
+public class WriteBatchTest {
+
+    private static final int PACKETS = 2000;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxPackets() {
+        Connector.create(AsyncClient::new, null, null).writeBatch(0, 1024);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxBytes() {
+        ConnectionBuilder.create(new InetSocketAddress(0), AsyncClient::new, null, null).writeBatch(16, 0);
+    }
+
+    @Test
+    public void testBatchedPacketsOrder() throws IOException, ExecutionException, InterruptedException {
+        testBatchedPackets(32, 8192);
+    }
+
+    @Test
+    public void testBatchLimitedByBytes() throws IOException, ExecutionException, InterruptedException {
+        testBatchedPackets(Integer.MAX_VALUE, 10);
+    }
+
+    private void testBatchedPackets(int maxPackets, int maxBytes) throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9092);
+        Queue<Integer> received = new ConcurrentLinkedQueue<>();
+        ReadablePacketPool<AsyncServerValuePacket> pool = new ReadablePacketPool<>(() -> new AsyncServerValuePacket(received));
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> pool.get(),
+                Runnable::run).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).writeBatch(maxPackets, maxBytes).connect(socketAddress);
+            AsyncClientValuePacket[] packets = new AsyncClientValuePacket[PACKETS / 2];
+            for (int i = 0; i < packets.length; i++) {
+                packets[i] = new AsyncClientValuePacket(i);
+            }
+            client.sendPackets(packets);
+            for (int i = PACKETS / 2; i < PACKETS; i++) {
+                client.sendPacket(new AsyncClientValuePacket(i));
+            }
+
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == PACKETS);
+            int expected = 0;
+            for (Integer value : received) {
+                Assert.assertEquals(expected++, value.intValue());
+            }
+        } finally {
+            handler.shutdown();
+        }
+    }
+}
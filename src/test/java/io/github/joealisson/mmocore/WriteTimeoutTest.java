@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2019-2021 Async-mmocore
+ *
+ * This file is part of the Async-mmocore project.
+ *
+ * Async-mmocore is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Async-mmocore is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.joealisson.mmocore;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author JoeAlisson
+ */
+public class WriteTimeoutTest {
+
+    private static final int PACKETS = 64;
+    private static final int PACKET_SIZE = 1024 * 1024;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTimeout() {
+        Connector.create(AsyncClient::new, null, null).writeTimeout(-1, WriteStallPolicy.DISCONNECT);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullPolicy() {
+        Connector.create(AsyncClient::new, null, null).writeTimeout(100, null);
+    }
+
+    @Test
+    public void testDisconnectStalledWrite() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9096);
+        ConnectionHandler<AsyncClient> handler = notReadingServer(socketAddress);
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).frameCodec(FrameCodec.intLE())
+                    .writeTimeout(200, WriteStallPolicy.DISCONNECT).connect(socketAddress);
+            for (int i = 0; i < PACKETS; i++) {
+                client.sendPacket(new LargePacket());
+            }
+
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> !client.isConnected());
+            Assert.assertEquals(1, client.getWriteStalls());
+            Assert.assertEquals(0, client.getEstimateQueueSize());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void testMarkSlowStalledWrite() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9096);
+        ConnectionHandler<AsyncClient> handler = notReadingServer(socketAddress);
+        try {
+            handler.start();
+            AtomicInteger stalls = new AtomicInteger();
+            AsyncClient client = Connector.create((Connection<AsyncClient> connection) -> new StallClient(connection, stalls), null, null)
+                    .frameCodec(FrameCodec.intLE()).writeTimeout(200, WriteStallPolicy.MARK_SLOW).connect(socketAddress);
+            for (int i = 0; i < PACKETS; i++) {
+                client.sendPacket(new LargePacket());
+            }
+
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> stalls.get() > 0);
+            Assert.assertTrue(client.isWriteStalled());
+            Assert.assertTrue(client.isConnected());
+            Assert.assertEquals(stalls.get(), client.getWriteStalls());
+            client.disconnect();
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    private ConnectionHandler<AsyncClient> notReadingServer(InetSocketAddress socketAddress) throws IOException {
+        return ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> null, Runnable::run).frameCodec(FrameCodec.intLE())
+                .disableAutoReading(true).shutdownWaitTime(100).build();
+    }
+
+    private static class LargePacket extends WritablePacket<AsyncClient> {
+
+        @Override
+        protected boolean write(AsyncClient client, WritableBuffer buffer) {
+            buffer.writeBytes(new byte[PACKET_SIZE]);
+            return true;
+        }
+    }
+
+    private static class StallClient extends AsyncClient {
+
+        private final AtomicInteger stalls;
+
+        StallClient(Connection<AsyncClient> connection, AtomicInteger stalls) {
+            super(connection);
+            this.stalls = stalls;
+        }
+
+        @Override
+        protected void onWriteStalled() {
+            stalls.incrementAndGet();
+        }
+    }
+}